@@ -0,0 +1,30 @@
+package com.example.auth.audit;
+
+import com.example.auth.observer.AuthEvent;
+
+/**
+ * One entry of the security audit log, as returned by GET /api/auth/audit
+ */
+public class AuditRecord {
+    private final long timestamp;
+    private final AuthEvent.EventType type;
+    private final Long userId;
+
+    public AuditRecord(long timestamp, AuthEvent.EventType type, Long userId) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.userId = userId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public AuthEvent.EventType getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.auth.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.auth.observer.AuthEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only security audit log made of memory-mapped segment files.
+ *
+ * Each segment covers one rotation period (a day by default) or fewer if it fills up,
+ * and holds a 64-byte header followed by fixed 24-byte records: timestamp, user id and
+ * event type. Timestamps never decrease within the log, so each segment keeps a sparse
+ * in-memory index of every 1024th record's timestamp; a query skips segments outside its
+ * time range and binary searches the index to start scanning near the first match.
+ *
+ * Appends are serialized. Readers take a snapshot of the segment list and read up to the
+ * published record count without locking. Segments whose newest record is older than the
+ * retention period are deleted by a scheduled purge.
+ */
+@Component
+public class SecurityAuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityAuditLog.class);
+
+    private static final int MAGIC = 0x43414c31; // "CAL1"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_START = 8;
+    private static final int HEADER_COUNT = 16;
+
+    // Record layout; the type is the EventType ordinal, so new types must be appended
+    private static final int RECORD_SIZE = 24;
+    private static final int TIMESTAMP = 0;
+    private static final int USER_ID = 8;
+    private static final int TYPE = 16;
+
+    private static final long NO_USER = -1;
+    private static final int INDEX_INTERVAL = 1024;
+    private static final AuthEvent.EventType[] TYPES = AuthEvent.EventType.values();
+
+    private final Path directory;
+    private final long segmentMillis;
+    private final int segmentRecords;
+    private final long retentionMillis;
+
+    // Oldest first; replaced as a whole under the append lock, read without it
+    private volatile List<Segment> segments = Collections.emptyList();
+    private long lastTimestamp;
+
+    public SecurityAuditLog(@Value("${app.audit.path:data/audit}") String path,
+                            @Value("${app.audit.segment-duration:86400000}") long segmentMillis,
+                            @Value("${app.audit.segment-records:1048576}") int segmentRecords,
+                            @Value("${app.audit.retention:7776000000}") long retentionMillis) {
+        this.directory = Paths.get(path);
+        this.segmentMillis = segmentMillis;
+        this.segmentRecords = segmentRecords;
+        this.retentionMillis = retentionMillis;
+        try {
+            Files.createDirectories(directory);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log at " + path, e);
+        }
+    }
+
+    public void append(AuthEvent event) {
+        append(event.getTimestamp().toEpochMilli(), event.getType(),
+                event.getUser() != null ? event.getUser().getId() : null);
+    }
+
+    public synchronized void append(List<AuthEvent> events) {
+        for (AuthEvent event : events) {
+            append(event);
+        }
+    }
+
+    public synchronized void append(long timestamp, AuthEvent.EventType type, Long userId) {
+        // Keep timestamps non-decreasing so the sparse index stays sorted
+        timestamp = Math.max(timestamp, lastTimestamp);
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || timestamp >= segment.rotateAt || segment.count == segment.capacity) {
+            segment = rotate(timestamp);
+        }
+
+        int record = segment.count;
+        int base = HEADER_SIZE + record * RECORD_SIZE;
+        segment.buffer.putLong(base + TIMESTAMP, timestamp);
+        segment.buffer.putLong(base + USER_ID, userId != null ? userId : NO_USER);
+        segment.buffer.put(base + TYPE, (byte) type.ordinal());
+        if (record % INDEX_INTERVAL == 0) {
+            segment.index[record / INDEX_INTERVAL] = timestamp;
+        }
+        if (record == 0) {
+            segment.first = timestamp;
+        }
+        segment.last = timestamp;
+        segment.buffer.putInt(HEADER_COUNT, record + 1);
+        // Publish the record to readers only after it is written
+        segment.count = record + 1;
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Records with from <= timestamp <= to, optionally for one user, oldest first
+     */
+    public List<AuditRecord> query(Long userId, long from, long to, int limit) {
+        List<AuditRecord> results = new ArrayList<>();
+        for (Segment segment : segments) {
+            int count = segment.count;
+            if (count == 0 || segment.last < from || segment.first > to) {
+                continue;
+            }
+            for (int record = segment.seek(from, count); record < count; record++) {
+                int base = HEADER_SIZE + record * RECORD_SIZE;
+                long timestamp = segment.buffer.getLong(base + TIMESTAMP);
+                if (timestamp > to) {
+                    return results;
+                }
+                long user = segment.buffer.getLong(base + USER_ID);
+                if (timestamp >= from && (userId == null || user == userId)) {
+                    results.add(new AuditRecord(timestamp, TYPES[segment.buffer.get(base + TYPE)],
+                            user == NO_USER ? null : user));
+                    if (results.size() >= limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.purge-interval:3600000}")
+    public synchronized void purge() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        List<Segment> kept = new ArrayList<>(segments);
+        // Never the newest segment, which is still being appended to
+        while (kept.size() > 1 && kept.get(0).last < cutoff) {
+            Segment expired = kept.remove(0);
+            try {
+                expired.channel.close();
+                Files.deleteIfExists(expired.path);
+            } catch (IOException e) {
+                logger.warn("Could not delete expired audit segment {}", expired.path, e);
+            }
+        }
+        segments = Collections.unmodifiableList(kept);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+    }
+
+    private Segment rotate(long timestamp) {
+        try {
+            // A segment that fills up within one millisecond is followed by one with the same start
+            Path path;
+            int sequence = 0;
+            do {
+                path = directory.resolve(String.format("audit-%020d-%03d.seg", timestamp, sequence++));
+            } while (Files.exists(path));
+            Segment segment = map(path, segmentRecords);
+            segment.buffer.putInt(HEADER_MAGIC, MAGIC);
+            segment.buffer.putInt(HEADER_VERSION, VERSION);
+            segment.buffer.putLong(HEADER_START, timestamp);
+            segment.buffer.putInt(HEADER_COUNT, 0);
+            segment.rotateAt = timestamp - Math.floorMod(timestamp, segmentMillis) + segmentMillis;
+
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.add(segment);
+            segments = Collections.unmodifiableList(updated);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create audit segment", e);
+        }
+    }
+
+    private void open() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "audit-*.seg")) {
+            stream.forEach(paths::add);
+        }
+        // Zero-padded start times and sequence numbers, so name order is time order
+        paths.sort(Comparator.comparing(Path::toString));
+
+        List<Segment> opened = new ArrayList<>();
+        for (Path path : paths) {
+            int capacity = (int) ((Files.size(path) - HEADER_SIZE) / RECORD_SIZE);
+            Segment segment = map(path, capacity);
+            if (segment.buffer.getInt(HEADER_MAGIC) != MAGIC) {
+                logger.warn("Skipping unrecognised audit segment {}", path);
+                segment.channel.close();
+                continue;
+            }
+            long start = segment.buffer.getLong(HEADER_START);
+            segment.rotateAt = start - Math.floorMod(start, segmentMillis) + segmentMillis;
+            int count = Math.min(segment.buffer.getInt(HEADER_COUNT), capacity);
+            for (int record = 0; record < count; record += INDEX_INTERVAL) {
+                segment.index[record / INDEX_INTERVAL] =
+                        segment.buffer.getLong(HEADER_SIZE + record * RECORD_SIZE + TIMESTAMP);
+            }
+            if (count > 0) {
+                segment.first = segment.buffer.getLong(HEADER_SIZE + TIMESTAMP);
+                segment.last = segment.buffer.getLong(HEADER_SIZE + (count - 1) * RECORD_SIZE + TIMESTAMP);
+                lastTimestamp = Math.max(lastTimestamp, segment.last);
+            }
+            segment.count = count;
+            opened.add(segment);
+        }
+        segments = Collections.unmodifiableList(opened);
+    }
+
+    private static Segment map(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new Segment(path, channel, buffer, capacity);
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        // Timestamp of every INDEX_INTERVAL-th record
+        private final long[] index;
+
+        private volatile int count;
+        private volatile long first;
+        private volatile long last;
+        private long rotateAt;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.index = new long[(capacity + INDEX_INTERVAL - 1) / INDEX_INTERVAL];
+        }
+
+        /**
+         * First record worth scanning for timestamps >= from: the start of the last
+         * indexed block that begins before from
+         */
+        private int seek(long from, int count) {
+            int blocks = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+            int low = 0;
+            int high = blocks - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (index[mid] < from) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low * INDEX_INTERVAL;
+        }
+    }
+}
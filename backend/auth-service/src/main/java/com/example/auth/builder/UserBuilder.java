@@ -55,16 +55,6 @@ public class UserBuilder {
         return this;
     }
     
-    public UserBuilder withResetToken(String resetToken) {
-        this.user.setResetToken(resetToken);
-        return this;
-    }
-    
-    public UserBuilder withResetTokenExpiry(Long expiryTimestamp) {
-        this.user.setResetTokenExpiry(expiryTimestamp);
-        return this;
-    }
-    
     public User build() {
         // Validate the user object has minimum required fields
         if (this.user.getUsername() == null || this.user.getUsername().isEmpty()) {
@@ -8,9 +8,15 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import com.example.auth.model.Role;
+import com.example.auth.service.TokenRevocationService;
+import com.example.auth.service.UserPrincipalCache;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -27,7 +33,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService; // Use UserDetailsService instead of UserService
+    private UserPrincipalCache userPrincipalCache; // Cached UserDetailsService lookups, evicted on account changes
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // The refresh token is the credential there, and clients usually still send the
+        // access token that just expired
+        return (request.getContextPath() + "/api/auth/refresh").equals(request.getRequestURI());
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
@@ -36,13 +52,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
 
-        String jwt = null;
         String username = null;
+        boolean guest = false;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Signature and expiry are both checked here, before any user lookup
+                Claims claims = jwtUtil.verify(jwt);
+                if (tokenRevocationService.isRevoked(claims)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT token revoked.");
+                    return;
+                }
+                username = claims.getSubject();
+                guest = JwtUtil.isGuest(claims);
             } catch (ExpiredJwtException e) {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT token expired.");
                 return;
@@ -53,20 +76,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            UserDetails userDetails;
+            if (guest) {
+                // Guests usually have no users row; everything needed is in the token
+                userDetails = User.builder()
+                    .username(username)
+                    .password("")
+                    .roles(Role.GUEST.name())
+                    .build();
             } else {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT token validation failed.");
-                return;
+                try {
+                    userDetails = userPrincipalCache.get(username);
+                } catch (UsernameNotFoundException e) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT token validation failed.");
+                    return;
+                }
             }
+
+            UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities());
+
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
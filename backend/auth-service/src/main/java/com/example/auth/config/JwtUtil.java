@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 import java.security.Key;
 
@@ -17,6 +18,13 @@ import java.security.Key;
 public class JwtUtil{
 
     private Key secretkey;
+    private JwtParser parser;
+
+    // Marks a guest session, which has no users row until it needs one
+    public static final String GUEST_CLAIM = "guest";
+
+    // Refresh token family an access token was issued under, so one session can be revoked
+    public static final String SESSION_CLAIM = "sid";
 
     @Value("${jwt.secret}")
     private String secret;
@@ -24,23 +32,78 @@ public class JwtUtil{
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // Guests have no refresh token (they have no users row), so their tokens live longer
+    @Value("${jwt.guest-expiration:86400000}")
+    private Long guestExpiration;
+
     @Value("${jwt.issuer}")
     private String issuer;
 
     @PostConstruct
     public void init(){
         this.secretkey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretkey)
+                .build();
     }
 
     public String generateToken(String username){
+        return builder(username, expiration).compact();
+    }
+
+    /**
+     * Access token for a session that has a refresh token family
+     */
+    public String generateToken(String username, String sessionId){
+        return builder(username, expiration)
+            .claim(SESSION_CLAIM, sessionId)
+            .compact();
+    }
+
+    /**
+     * Self-contained guest token: the guest's identity lives only in the token
+     */
+    public String generateGuestToken(String username){
+        return builder(username, guestExpiration)
+            .claim(GUEST_CLAIM, true)
+            .compact();
+    }
+
+    public static boolean isGuest(Claims claims){
+        return Boolean.TRUE.equals(claims.get(GUEST_CLAIM, Boolean.class));
+    }
+
+    public static String sessionId(Claims claims){
+        return claims.get(SESSION_CLAIM, String.class);
+    }
+
+    public long getExpiration(){
+        return expiration;
+    }
+
+    public long getGuestExpiration(){
+        return guestExpiration;
+    }
+
+    private JwtBuilder builder(String username, long lifetime){
         Key secretKey=this.secretkey;
         return Jwts.builder()
+            .setId(UUID.randomUUID().toString()) // lets a single token be revoked
             .setIssuer(issuer)
             .setSubject(username)
             .setIssuedAt(new Date())
-            .setExpiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(secretKey,SignatureAlgorithm.HS256)
-            .compact();
+            .setExpiration(new Date(System.currentTimeMillis() + lifetime))
+            .signWith(secretKey,SignatureAlgorithm.HS256);
+    }
+
+    /**
+     * Parse and verify a token once, checking both signature and expiry.
+     *
+     * @throws ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed or its signature does not match
+     */
+    public Claims verify(String token){
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token){
@@ -52,14 +115,8 @@ public class JwtUtil{
     }
 
     public <T> T extractClaims(String token,Function<Claims,T> claimsResolver){
-        Key secretKey = this.secretkey;
         try{
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
         }
         catch(ExpiredJwtException e){
             throw new RuntimeException("Token expired.Please login again.");
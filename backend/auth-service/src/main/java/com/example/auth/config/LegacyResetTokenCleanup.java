@@ -0,0 +1,43 @@
+package com.example.auth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Drops the users.reset_token and reset_token_expiry columns. Password reset tokens now
+ * live hashed in password_reset_tokens, but Hibernate's schema update never removes
+ * columns, so the plaintext tokens written before that would otherwise stay in users.
+ * A no-op once the columns are gone.
+ *
+ * Taking the EntityManagerFactory makes it run after Hibernate has updated the schema.
+ */
+@Component
+public class LegacyResetTokenCleanup {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyResetTokenCleanup.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LegacyResetTokenCleanup(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void dropLegacyColumns() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns WHERE lower(table_name) = 'users' " +
+                "AND lower(column_name) IN ('reset_token', 'reset_token_expiry')",
+                Integer.class);
+        if (existing == null || existing == 0) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS reset_token");
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS reset_token_expiry");
+        logger.info("Dropped legacy plaintext reset token columns from users");
+    }
+}
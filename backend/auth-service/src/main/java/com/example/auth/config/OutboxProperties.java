@@ -0,0 +1,81 @@
+package com.example.auth.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.auth.observer.AuthEvent;
+
+/**
+ * Services that receive AuthEvents through the outbox, keyed by subscriber name
+ */
+@Component
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+    private int batchSize = 100;
+    private long requestTimeout = 5000;
+    private long maxBackoff = 60000;
+    private Map<String, Subscriber> subscribers = new HashMap<>();
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(long requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Map<String, Subscriber> getSubscribers() {
+        return subscribers;
+    }
+
+    public void setSubscribers(Map<String, Subscriber> subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    public static class Subscriber {
+        // Subscribers without a url are disabled
+        private String url;
+        private List<AuthEvent.EventType> events = new ArrayList<>();
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public List<AuthEvent.EventType> getEvents() {
+            return events;
+        }
+
+        public void setEvents(List<AuthEvent.EventType> events) {
+            this.events = events;
+        }
+
+        public boolean isEnabled() {
+            return url != null && !url.isEmpty();
+        }
+    }
+}
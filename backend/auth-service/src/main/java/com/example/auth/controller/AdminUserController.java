@@ -0,0 +1,64 @@
+package com.example.auth.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.auth.service.BulkUserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bulk user provisioning and export. ADMIN only, through the /api/admin/** rule.
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    @Autowired
+    private BulkUserService bulkUserService;
+
+    @PostMapping(value = "/import", consumes = { NDJSON, CSV })
+    public ResponseEntity<Map<String, Object>> importUsers(HttpServletRequest request) throws IOException {
+        BulkUserService.Format format = request.getContentType().startsWith(CSV)
+                ? BulkUserService.Format.CSV : BulkUserService.Format.NDJSON;
+        // Read as it arrives rather than bound to a list first
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        try {
+            BulkUserService.ImportResult result = bulkUserService.importUsers(reader, format);
+            return ResponseEntity.ok(Map.of(
+                    "created", result.getCreated(),
+                    "failed", result.getFailed(),
+                    "errors", result.getErrors()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setContentType(csv ? CSV : NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + (csv ? "csv" : "ndjson"));
+        bulkUserService.exportUsers(response.getWriter(), csv ? BulkUserService.Format.CSV : BulkUserService.Format.NDJSON);
+    }
+}
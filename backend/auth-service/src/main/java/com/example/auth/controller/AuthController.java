@@ -1,30 +1,45 @@
 package com.example.auth.controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.auth.audit.AuditRecord;
+import com.example.auth.audit.SecurityAuditLog;
+import com.example.auth.config.JwtUtil;
 import com.example.auth.dto.PasswordResetConfirmRequest;
 import com.example.auth.dto.PasswordResetRequest;
 import com.example.auth.dto.UpdateProfileRequest;
 import com.example.auth.dto.UserDetailsResponse;
+import com.example.auth.exception.PasswordHashingRejectedException;
+import com.example.auth.model.Role;
 import com.example.auth.model.User;
+import com.example.auth.security.LoginThrottle;
+import com.example.auth.service.RefreshTokenService;
+import com.example.auth.service.UserAvailabilityService;
+import com.example.auth.service.UserPrincipalCache;
 import com.example.auth.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -34,14 +49,38 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private SecurityAuditLog securityAuditLog;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @PostMapping("/register")
     public ResponseEntity<Map<String, Object>> registerUser(@RequestBody User user) {
         try {
-            String token = userService.registerUser(user);
+            User registered = userService.registerUser(user);
+            // The session's access token comes with its refresh token, carrying the family id
+            RefreshTokenService.TokenPair tokens = refreshTokenService.start(registered);
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                     "message", "Registration successful",
-                    "token", token,
-                    "expiresIn", 86400000));
+                    "token", tokens.getAccessToken(),
+                    "refreshToken", tokens.getRefreshToken(),
+                    "expiresIn", jwtUtil.getExpiration()));
+        } catch (PasswordHashingRejectedException e) {
+            // Answered with 503 + Retry-After by GlobalExceptionHandler
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
                     "message", e.getMessage()));
@@ -51,6 +90,27 @@ public class AuthController {
         }
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if ((username == null || username.isEmpty()) && (email == null || email.isEmpty())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "message", "Username or email is required"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        if (username != null && !username.isEmpty()) {
+            response.put("username", username);
+            response.put("usernameAvailable", userAvailabilityService.isUsernameAvailable(username));
+        }
+        if (email != null && !email.isEmpty()) {
+            response.put("email", email);
+            response.put("emailAvailable", userAvailabilityService.isEmailAvailable(email));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/guest")
     public ResponseEntity<Map<String, Object>> guestAccess() {
         try {
@@ -58,7 +118,9 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                     "message", "Guest access granted",
                     "token", token,
-                    "expiresIn", 86400000));
+                    "expiresIn", jwtUtil.getGuestExpiration()));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                     "message", e.getMessage()));
@@ -66,37 +128,87 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> loginUser(@RequestBody User user) {
+    public ResponseEntity<Map<String, Object>> loginUser(@RequestBody User user, HttpServletRequest request) {
+        // Remote address comes from X-Forwarded-For (server.forward-headers-strategy), which the
+        // nginx edge proxy overwrites with the peer address, so clients cannot pick their own key
+        LoginThrottle.Attempt attempt = loginThrottle.tryAcquire(user.getUsername(), request.getRemoteAddr());
+        if (attempt == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getRetryAfterSeconds()))
+                    .body(Map.of(
+                            "message", "Too many login attempts, please try again later"));
+        }
+
+        User authenticated;
         try {
-            String token = userService.loginUser(user.getUsername(), user.getPassword());
-            // Get user details to include in response
-            Optional<User> userDetails = userService.findByUsername(user.getUsername());
+            authenticated = userService.loginUser(user.getUsername(), user.getPassword());
+        } catch (BadCredentialsException e) {
+            // The attempt keeps its count; only wrong credentials count towards the limits
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            // Overloaded hasher or infrastructure trouble, not a guess
+            loginThrottle.release(attempt);
+            throw e;
+        }
+        loginThrottle.release(attempt);
+
+        try {
+            RefreshTokenService.TokenPair tokens = refreshTokenService.start(authenticated);
+            Map<String, Object> responseMap = new HashMap<>();
+            responseMap.put("message", "Login successful");
+            responseMap.put("token", tokens.getAccessToken());
+            responseMap.put("refreshToken", tokens.getRefreshToken());
+            responseMap.put("expiresIn", jwtUtil.getExpiration());
+            responseMap.put("user", new UserDetailsResponse(
+                authenticated.getUsername(), 
+                authenticated.getEmail(), 
+                authenticated.getRole().toString()
+            ));
             
-            if (userDetails.isPresent()) {
-                User userData = userDetails.get();
-                Map<String, Object> responseMap = new HashMap<>();
-                responseMap.put("message", "Login successful");
-                responseMap.put("token", token);
-                responseMap.put("expiresIn", 86400000);
-                responseMap.put("user", new UserDetailsResponse(
-                    userData.getUsername(), 
-                    userData.getEmail(), 
-                    userData.getRole().toString()
-                ));
-                
-                return ResponseEntity.ok(responseMap);
-            } else {
-                return ResponseEntity.ok(Map.of(
-                        "message", "Login successful",
-                        "token", token,
-                        "expiresIn", 86400000));
-            }
+            return ResponseEntity.ok(responseMap);
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
                     "message", e.getMessage()));
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refreshToken(@RequestBody Map<String, String> body) {
+        String refreshToken = body.get("refreshToken");
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "message", "Refresh token is required"));
+        }
+
+        try {
+            RefreshTokenService.TokenPair tokens = refreshTokenService.refresh(refreshToken);
+            return ResponseEntity.ok(Map.of(
+                    "token", tokens.getAccessToken(),
+                    "refreshToken", tokens.getRefreshToken(),
+                    "expiresIn", jwtUtil.getExpiration()));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logoutUser(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorizationHeader,
+            @RequestBody(required = false) Map<String, String> body) {
+        // The filter has already verified this token; revoke it so it can't be reused
+        String token = authorizationHeader.substring(7);
+        userService.logoutUser(token);
+        if (body != null && body.get("refreshToken") != null) {
+            refreshTokenService.revoke(body.get("refreshToken"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "message", "Logged out successfully"));
+    }
+
     @PutMapping("/update-profile")
     public ResponseEntity<Map<String, Object>> updateUserProfile(@Valid @RequestBody UpdateProfileRequest updateRequest) {
         String username = SecurityContextHolder.getContext()
@@ -126,30 +238,52 @@ public class AuthController {
 
     @GetMapping("/user")
     public ResponseEntity<Map<String, Object>> getUser() {
-        String username = SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getName();
-
-        Optional<User> userDetails = userService.findByUsername(username);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
 
-        if (userDetails.isPresent()) {
-            User user = userDetails.get();
-            UserDetailsResponse response = new UserDetailsResponse(
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole().toString()
-            );
+        try {
+            UserDetailsResponse response = userPrincipalCache.getProfile(username);
             
             return ResponseEntity.ok(Map.of(
                     "message", "Details obtained successfully",
                     "user", response));
-        } else {
+        } catch (UsernameNotFoundException e) {
+            boolean guest = auth.getAuthorities().stream()
+                    .anyMatch(a -> ("ROLE_" + Role.GUEST.name()).equals(a.getAuthority()));
+            if (guest) {
+                // Guest sessions without a stored row
+                return ResponseEntity.ok(Map.of(
+                        "message", "Details obtained successfully",
+                        "user", new UserDetailsResponse(username, null, Role.GUEST.name())));
+            }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
                     "message", "User not found",
                     "error", "NOT_FOUND"));
         }
     }
 
+    @GetMapping("/audit")
+    public ResponseEntity<Map<String, Object>> getAuditLog(
+            @RequestParam(name = "user", required = false) Long userId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        // Times are epoch milliseconds; default to the last day
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 86_400_000L;
+        if (start > end || limit <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "message", "Invalid time range or limit"));
+        }
+
+        List<AuditRecord> records = securityAuditLog.query(userId, start, end, Math.min(limit, 10_000));
+        return ResponseEntity.ok(Map.of(
+                "from", start,
+                "to", end,
+                "count", records.size(),
+                "records", records));
+    }
+
     @DeleteMapping("/delete-account")
     public ResponseEntity<Map<String, Object>> deleteUser() {
         String username = SecurityContextHolder.getContext()
@@ -200,6 +334,8 @@ public class AuthController {
             userService.confirmPasswordReset(request.getToken(), request.getNewPassword());
             return ResponseEntity.ok(Map.of(
                     "message", "Password reset successful"));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
                     "message", e.getMessage()));
@@ -227,6 +363,8 @@ public class AuthController {
             userService.changePassword(username, currentPassword, newPassword);
             return ResponseEntity.ok(Map.of(
                     "message", "Password changed successfully"));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
                     "message", e.getMessage()));
@@ -251,12 +389,16 @@ public class AuthController {
         }
         
         try {
-            String token = userService.upgradeGuestToUser(guestUsername, username, email, password);
+            User upgraded = userService.upgradeGuestToUser(guestUsername, username, email, password);
+            RefreshTokenService.TokenPair tokens = refreshTokenService.start(upgraded);
             return ResponseEntity.ok(Map.of(
                     "message", "Account upgraded successfully",
                     "username", username,
-                    "token", token,
-                    "expiresIn", 86400000));
+                    "token", tokens.getAccessToken(),
+                    "refreshToken", tokens.getRefreshToken(),
+                    "expiresIn", jwtUtil.getExpiration()));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
                     "message", e.getMessage()));
@@ -0,0 +1,20 @@
+package com.example.auth.exception;
+
+/**
+ * Thrown when the password hashing executor is saturated. Answered with 503 and a
+ * Retry-After header by GlobalExceptionHandler, so callers that catch RuntimeException
+ * broadly must let this one through.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Server is busy, please try again shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
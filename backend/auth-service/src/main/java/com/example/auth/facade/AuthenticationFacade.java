@@ -50,7 +50,7 @@ public class AuthenticationFacade {
         // Create response
         Map<String, Object> response = new HashMap<>();
         response.put("token", token);
-        response.put("expiresIn", 86400000);
+        response.put("expiresIn", jwtUtil.getExpiration());
         response.put("user", new UserDetailsResponse(
             user.getUsername(),
             user.getEmail(),
@@ -95,7 +95,7 @@ public class AuthenticationFacade {
         // Create response
         Map<String, Object> response = new HashMap<>();
         response.put("token", token);
-        response.put("expiresIn", 86400000);
+        response.put("expiresIn", jwtUtil.getExpiration());
         response.put("user", new UserDetailsResponse(
             user.getUsername(),
             user.getEmail(),
@@ -36,13 +36,12 @@ public class UserFactory {
     }
     
     /**
-     * Creates a guest user with a randomly generated username and password
+     * Creates the stored form of a guest, for when a guest session first needs a row.
+     * Guests have no password, so they can never log in with one.
      */
-    public User createGuestUser() {
+    public User createGuestUser(String guestUsername) {
         User user = new User();
-        String guestUsername = "guest_" + UUID.randomUUID().toString().substring(0, 8);
         user.setUsername(guestUsername);
-        user.setPassword(passwordEncoder.encode(UUID.randomUUID().toString()));
         user.setRole(Role.GUEST);
         user.setProvider(AuthProvider.LOCAL);
         return user;
@@ -0,0 +1,110 @@
+package com.example.auth.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * An AuthEvent waiting to be delivered to one subscribing service. Written in the same
+ * transaction as the user change it describes, and deleted once the subscriber has
+ * acknowledged it. An event going to several subscribers gets one row each, sharing the
+ * same eventId, so consumers can recognise redeliveries.
+ */
+@Entity
+@Table(name = "auth_outbox", indexes = {
+    @Index(name = "idx_auth_outbox_subscriber", columnList = "subscriber, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String subscriber;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    private Long userId;
+
+    private String username;
+
+    @Column(nullable = false)
+    private Long occurredAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventId, String subscriber, String eventType, Long userId, String username, long occurredAt) {
+        this.eventId = eventId;
+        this.subscriber = subscriber;
+        this.eventType = eventType;
+        this.userId = userId;
+        this.username = username;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getSubscriber() {
+        return subscriber;
+    }
+
+    public void setSubscriber(String subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Long occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
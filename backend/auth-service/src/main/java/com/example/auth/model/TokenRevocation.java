@@ -0,0 +1,126 @@
+package com.example.auth.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Persistent deny list entry. Either tokenId is set (one token revoked), sessionId is (every
+ * token of one refresh token family revoked), or subject and notBefore are (all of that
+ * subject's tokens issued before notBefore revoked). Rows are
+ * kept until expiresAt, after which every token they cover has expired on its own.
+ * Other services poll this table by createdAt.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_token_revocations_created_at", columnList = "createdAt"),
+    @Index(name = "idx_token_revocations_expires_at", columnList = "expiresAt")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String tokenId;
+
+    private String sessionId;
+
+    private String subject;
+
+    private Long notBefore;
+
+    @Column(nullable = false)
+    private Long expiresAt;
+
+    @Column(nullable = false)
+    private Long createdAt;
+
+    public TokenRevocation() {
+    }
+
+    public static TokenRevocation forToken(String tokenId, long expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setCreatedAt(System.currentTimeMillis());
+        return revocation;
+    }
+
+    public static TokenRevocation forSession(String sessionId, long expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setSessionId(sessionId);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setCreatedAt(System.currentTimeMillis());
+        return revocation;
+    }
+
+    public static TokenRevocation forSubject(String subject, long notBefore, long expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setSubject(subject);
+        revocation.setNotBefore(notBefore);
+        revocation.setExpiresAt(expiresAt);
+        revocation.setCreatedAt(notBefore);
+        return revocation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public Long getNotBefore() {
+        return notBefore;
+    }
+
+    public void setNotBefore(Long notBefore) {
+        this.notBefore = notBefore;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -7,10 +7,16 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Lets GuestReaper walk guests in id order without touching other rows
+    @Index(name = "idx_users_role_id", columnList = "role, id")
+})
 public class User {
     
     @Id
@@ -31,13 +37,18 @@ public class User {
     @Enumerated(EnumType.STRING)
     private AuthProvider provider = AuthProvider.LOCAL;
     
-    private String resetToken;
-    
-    private Long resetTokenExpiry;
+    // Last time the row was written; null for rows from before this column existed
+    private Long updatedAt;
     
     public User() {
     }
     
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+    
     public Long getId() {
         return id;
     }
@@ -86,19 +97,11 @@ public class User {
         this.provider = provider;
     }
     
-    public String getResetToken() {
-        return resetToken;
-    }
-    
-    public void setResetToken(String resetToken) {
-        this.resetToken = resetToken;
-    }
-    
-    public Long getResetTokenExpiry() {
-        return resetTokenExpiry;
+    public Long getUpdatedAt() {
+        return updatedAt;
     }
     
-    public void setResetTokenExpiry(Long resetTokenExpiry) {
-        this.resetTokenExpiry = resetTokenExpiry;
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
     }
 }
\ No newline at end of file
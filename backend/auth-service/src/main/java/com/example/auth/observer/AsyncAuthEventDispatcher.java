@@ -0,0 +1,232 @@
+package com.example.auth.observer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Delivers events to asynchronous listeners through a bounded ring buffer shared by all
+ * of them. Publishers claim a sequence number and write their slot without locking; each
+ * listener has its own thread and read cursor, and takes whatever has been published
+ * since its last batch.
+ *
+ * Each slot records the sequence it holds (negative while empty or being written), so a reader can
+ * tell a slot that is not yet published from one that has already been reused. A
+ * listener that falls a full buffer behind either holds publishers back (ASYNC_BLOCK,
+ * for at most the block timeout) or skips what was overwritten (ASYNC_DROP).
+ *
+ * Metrics, tagged by listener: auth.events.lag (gauge, events not yet delivered),
+ * auth.events.dropped (counter) and auth.events.dispatch.delay (timer, publish to delivery).
+ */
+public class AsyncAuthEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuthEventDispatcher.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long PUBLISHER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    // Slot sequence markers; both sort below any real sequence, so readers treat them as unpublished
+    private static final long EMPTY = -1;
+    private static final long WRITING = -2;
+
+    private final AtomicReferenceArray<AuthEvent> slots;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final int mask;
+    private final int maxBatch;
+    private final long blockTimeoutNanos;
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final List<ListenerCursor> cursors = new ArrayList<>();
+    private final List<ListenerCursor> blockingCursors = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public AsyncAuthEventDispatcher(List<AuthEventListener> listeners, int bufferSize, int maxBatch,
+                                    long blockTimeoutMillis, MeterRegistry meterRegistry) {
+        this.capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1) << 1);
+        this.mask = capacity - 1;
+        this.maxBatch = maxBatch;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, EMPTY);
+        }
+
+        for (AuthEventListener listener : listeners) {
+            ListenerCursor cursor = new ListenerCursor(listener, meterRegistry);
+            cursors.add(cursor);
+            if (listener.getDelivery() == AuthEventListener.Delivery.ASYNC_BLOCK) {
+                blockingCursors.add(cursor);
+            }
+        }
+        for (ListenerCursor cursor : cursors) {
+            cursor.thread.start();
+        }
+    }
+
+    public void dispatch(AuthEvent event) {
+        long sequence = nextSequence.getAndIncrement();
+        awaitSlot(sequence);
+
+        int index = (int) sequence & mask;
+        while (true) {
+            long current = sequences.get(index);
+            if (current > sequence) {
+                // A later lap already took the slot; readers count this event as dropped
+                break;
+            }
+            if (current != WRITING && sequences.compareAndSet(index, current, WRITING)) {
+                slots.set(index, event);
+                sequences.set(index, sequence);
+                break;
+            }
+            Thread.onSpinWait();
+        }
+
+        for (ListenerCursor cursor : cursors) {
+            LockSupport.unpark(cursor.thread);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        for (ListenerCursor cursor : cursors) {
+            LockSupport.unpark(cursor.thread);
+        }
+        for (ListenerCursor cursor : cursors) {
+            try {
+                cursor.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wait until every blocking listener has read the slot's previous occupant, or the
+     * block timeout passes
+     */
+    private void awaitSlot(long sequence) {
+        long previousOccupant = sequence - capacity;
+        if (previousOccupant < 0 || blockingCursors.isEmpty()) {
+            return;
+        }
+        long deadline = 0;
+        while (slowestBlockingCursor() <= previousOccupant) {
+            long now = System.nanoTime();
+            if (deadline == 0) {
+                deadline = now + blockTimeoutNanos;
+            } else if (now - deadline >= 0) {
+                return;
+            }
+            LockSupport.parkNanos(PUBLISHER_PARK_NANOS);
+        }
+    }
+
+    private long slowestBlockingCursor() {
+        long slowest = Long.MAX_VALUE;
+        for (ListenerCursor cursor : blockingCursors) {
+            slowest = Math.min(slowest, cursor.next);
+        }
+        return slowest;
+    }
+
+    private final class ListenerCursor implements Runnable {
+        private final AuthEventListener listener;
+        private final Thread thread;
+        private final Counter dropped;
+        private final Timer delay;
+
+        // Next sequence to read; only written by this listener's thread
+        private volatile long next;
+
+        private ListenerCursor(AuthEventListener listener, MeterRegistry meterRegistry) {
+            this.listener = listener;
+            String name = listener.getClass().getSimpleName();
+            this.thread = new Thread(this, "auth-events-" + name);
+            this.thread.setDaemon(true);
+            this.dropped = Counter.builder("auth.events.dropped")
+                    .description("Events a listener never received because it fell a full buffer behind")
+                    .tag("listener", name)
+                    .register(meterRegistry);
+            this.delay = Timer.builder("auth.events.dispatch.delay")
+                    .description("Time from publishing an event to handing it to the listener")
+                    .tag("listener", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.events.lag", this, cursor -> nextSequence.get() - cursor.next)
+                    .description("Events published but not yet delivered to the listener")
+                    .tag("listener", name)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void run() {
+            List<AuthEvent> batch = new ArrayList<>(maxBatch);
+            while (true) {
+                long position = next;
+                batch.clear();
+                while (batch.size() < maxBatch) {
+                    int index = (int) position & mask;
+                    long sequence = sequences.get(index);
+                    if (sequence == position) {
+                        AuthEvent event = slots.get(index);
+                        if (sequences.get(index) != position) {
+                            continue; // reused while reading; look again
+                        }
+                        position++;
+                        if (listener.supports(event.getType())) {
+                            batch.add(event);
+                        }
+                    } else if (sequence > position) {
+                        dropped.increment();
+                        position++;
+                    } else {
+                        break; // not published yet
+                    }
+                }
+
+                if (batch.isEmpty()) {
+                    next = position;
+                    if (!running) {
+                        return;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                deliver(batch);
+                // Slots are only released to blocking publishers once the batch is handled
+                next = position;
+            }
+        }
+
+        private void deliver(List<AuthEvent> batch) {
+            Instant now = Instant.now();
+            for (AuthEvent event : batch) {
+                delay.record(Duration.between(event.getTimestamp(), now));
+            }
+            try {
+                listener.onEvents(batch);
+            } catch (Exception e) {
+                logger.error("Auth event listener {} failed on a batch of {} events",
+                        listener.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+}
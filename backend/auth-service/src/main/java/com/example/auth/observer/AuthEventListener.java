@@ -1,5 +1,7 @@
 package com.example.auth.observer;
 
+import java.util.List;
+
 /**
  * Observer interface for the Observer Pattern implementation.
  * Concrete listeners will implement this to react to authentication events.
@@ -18,4 +20,40 @@ public interface AuthEventListener {
      * @return true if this listener handles this event type
      */
     boolean supports(AuthEvent.EventType eventType);
-}
\ No newline at end of file
+    
+    /**
+     * How events reach this listener. Synchronous unless overridden.
+     */
+    default Delivery getDelivery() {
+        return Delivery.SYNCHRONOUS;
+    }
+    
+    /**
+     * Handle a batch of supported events, in publish order. Only called for asynchronous
+     * listeners; by default hands them to onEvent one at a time.
+     * @param events The events to handle
+     */
+    default void onEvents(List<AuthEvent> events) {
+        for (AuthEvent event : events) {
+            onEvent(event);
+        }
+    }
+    
+    enum Delivery {
+        /**
+         * On the publishing thread, inside its transaction; for listeners whose effect
+         * must be in place before the request completes
+         */
+        SYNCHRONOUS,
+        /**
+         * In batches on the listener's own thread, after commit. A listener a full buffer
+         * behind makes publishers wait for it, up to a timeout.
+         */
+        ASYNC_BLOCK,
+        /**
+         * In batches on the listener's own thread, after commit. A listener a full buffer
+         * behind skips the events that were overwritten.
+         */
+        ASYNC_DROP
+    }
+}
@@ -1,22 +1,47 @@
 package com.example.auth.observer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Observer Pattern: Publisher implementation that notifies all registered listeners
  * when authentication events occur.
+ *
+ * Synchronous listeners are called straight away on the publishing thread. Asynchronous
+ * ones are handed the event through AsyncAuthEventDispatcher once the surrounding
+ * transaction (if any) commits, so slow sinks don't add to request latency.
  */
 @Component
 public class AuthEventPublisher {
     
-    private final List<AuthEventListener> listeners;
+    private final List<AuthEventListener> listeners = new ArrayList<>();
+    private final AsyncAuthEventDispatcher asyncDispatcher;
     
     @Autowired
-    public AuthEventPublisher(List<AuthEventListener> listeners) {
-        this.listeners = listeners;
+    public AuthEventPublisher(List<AuthEventListener> listeners,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.events.buffer-size:1024}") int bufferSize,
+                              @Value("${app.events.max-batch:64}") int maxBatch,
+                              @Value("${app.events.block-timeout:100}") long blockTimeoutMillis) {
+        List<AuthEventListener> asyncListeners = new ArrayList<>();
+        for (AuthEventListener listener : listeners) {
+            if (listener.getDelivery() == AuthEventListener.Delivery.SYNCHRONOUS) {
+                this.listeners.add(listener);
+            } else {
+                asyncListeners.add(listener);
+            }
+        }
+        this.asyncDispatcher = asyncListeners.isEmpty() ? null
+                : new AsyncAuthEventDispatcher(asyncListeners, bufferSize, maxBatch, blockTimeoutMillis, meterRegistry);
     }
     
     /**
@@ -29,5 +54,26 @@ public class AuthEventPublisher {
                 listener.onEvent(event);
             }
         }
+        
+        if (asyncDispatcher == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    asyncDispatcher.dispatch(event);
+                }
+            });
+        } else {
+            asyncDispatcher.dispatch(event);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (asyncDispatcher != null) {
+            asyncDispatcher.shutdown();
+        }
     }
-}
\ No newline at end of file
+}
@@ -49,4 +49,10 @@ public class LoggingAuthEventListener implements AuthEventListener {
         // This listener handles all event types
         return true;
     }
+    
+    @Override
+    public Delivery getDelivery() {
+        // Informational only; under overload it is better to lose log lines than slow logins
+        return Delivery.ASYNC_DROP;
+    }
 }
\ No newline at end of file
@@ -1,20 +1,45 @@
 package com.example.auth.observer;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.example.auth.audit.SecurityAuditLog;
+
 /**
  * Concrete observer implementation focused on security events.
- * This listener only cares about security-critical auth events.
+ * This listener only cares about security-critical auth events, plus logins and logouts,
+ * which are recorded in the queryable SecurityAuditLog but not logged.
  */
 @Component
 public class SecurityEventListener implements AuthEventListener {
     
     private static final Logger securityLogger = LoggerFactory.getLogger("SECURITY_AUDIT");
     
+    private final SecurityAuditLog auditLog;
+    
+    public SecurityEventListener(SecurityAuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+    
+    @Override
+    public void onEvents(List<AuthEvent> events) {
+        // One append for the whole batch
+        auditLog.append(events);
+        for (AuthEvent event : events) {
+            log(event);
+        }
+    }
+    
     @Override
     public void onEvent(AuthEvent event) {
+        auditLog.append(event);
+        log(event);
+    }
+    
+    private void log(AuthEvent event) {
         switch (event.getType()) {
             case PASSWORD_CHANGED:
                 securityLogger.warn("SECURITY: Password changed for user: {} at {}", 
@@ -41,9 +66,17 @@ public class SecurityEventListener implements AuthEventListener {
     @Override
     public boolean supports(AuthEvent.EventType eventType) {
         // This listener only supports security-critical events
-        return eventType == AuthEvent.EventType.PASSWORD_CHANGED || 
+        return eventType == AuthEvent.EventType.USER_LOGIN ||
+               eventType == AuthEvent.EventType.USER_LOGOUT ||
+               eventType == AuthEvent.EventType.PASSWORD_CHANGED || 
                eventType == AuthEvent.EventType.PASSWORD_RESET_REQUESTED ||
                eventType == AuthEvent.EventType.PASSWORD_RESET_COMPLETED ||
                eventType == AuthEvent.EventType.ACCOUNT_DELETED;
     }
+    
+    @Override
+    public Delivery getDelivery() {
+        // Audit trail: off the request thread, but publishers wait for it rather than skip events
+        return Delivery.ASYNC_BLOCK;
+    }
 }
\ No newline at end of file
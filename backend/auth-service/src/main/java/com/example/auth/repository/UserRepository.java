@@ -1,16 +1,56 @@
 package com.example.auth.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.example.auth.model.User;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    Optional<User> findByResetToken(String resetToken);
     Boolean existsByUsername(String username);
-}
\ No newline at end of file
+    Boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Every username and email, read with a cursor rather than loaded at once.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    Stream<UserIdentity> streamIdentities();
+
+    /**
+     * Next chunk of guests after afterId not written since cutoff, locked for deletion.
+     * Rows with no updatedAt only count as stale when includeUnknown is set. Rows locked
+     * elsewhere, e.g. by a guest upgrade in progress, are skipped (lock timeout -2)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT u FROM User u WHERE u.role = com.example.auth.model.Role.GUEST AND u.id > :afterId " +
+           "AND (u.updatedAt < :cutoff OR (u.updatedAt IS NULL AND :includeUnknown = true)) ORDER BY u.id")
+    List<User> lockStaleGuests(Long afterId, Long cutoff, boolean includeUnknown, Pageable page);
+
+    interface UserIdentity {
+        String getUsername();
+        String getEmail();
+    }
+}
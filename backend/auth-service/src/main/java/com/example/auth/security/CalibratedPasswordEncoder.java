@@ -0,0 +1,91 @@
+package com.example.auth.security;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt with a work factor chosen for this machine: at startup it times a hash at the
+ * minimum cost and picks the highest cost expected to stay within the target time, each
+ * step up doubling the work. A fixed cost can be configured instead.
+ *
+ * upgradeEncoding() reports any stored hash with a lower cost than the current one, so
+ * UserService can rehash it on the next successful login. Hashes are never downgraded:
+ * calibration can pick a lower cost on a slower or busier machine, and rehashing on that
+ * would weaken them, then strengthen them again on the next faster one.
+ */
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedPasswordEncoder.class);
+
+    private static final int MAX_STRENGTH = 31;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+
+    public CalibratedPasswordEncoder(int strength) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * @param targetMillis verification time to aim for
+     * @param minStrength cost never to go below, however slow the machine
+     */
+    public static CalibratedPasswordEncoder calibrate(long targetMillis, int minStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String sample = UUID.randomUUID().toString();
+        probe.encode(sample); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(sample);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double millis = Math.max(best / 1_000_000.0, 0.001);
+        int strength = minStrength;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        logger.info("Password hashing calibrated to bcrypt cost {} (~{} ms, target {} ms)",
+                strength, Math.round(millis), targetMillis);
+        return new CalibratedPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Hashes look like $2a$10$..., with the cost in the third field
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        int end = encodedPassword.indexOf('$', 4);
+        if (end < 0) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, end)) < strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
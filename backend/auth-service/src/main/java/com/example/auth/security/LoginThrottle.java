@@ -0,0 +1,284 @@
+package com.example.auth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sliding-window limit on failed logins, per username and per client IP, checked before
+ * the login touches the database or the password hasher. Each attempt reserves a count up
+ * front, atomically with the check, so a burst of parallel attempts cannot all slip in
+ * under the limit while their passwords are being hashed. The reservation is released
+ * again if the login succeeds, so signing in from several devices never locks a user out.
+ *
+ * Counters live in fixed-size arrays indexed by key hash rather than a map, so memory
+ * stays constant however many distinct usernames or addresses are seen. Each key maps to
+ * two slots and the smaller count is used; they can only ever over-count, never
+ * under-count. An attempt only raises the slots holding that smaller count (conservative
+ * update), so a flood of distinct usernames spreads thinly instead of filling every slot.
+ * The arrays are sized from the expected number of distinct keys failing per window, to
+ * keep the chance of an innocent key finding both its slots at the limit negligible.
+ * Slots roll over to a new window lazily, on the next access.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${app.login-throttle.window:60000}")
+    private long windowMillis;
+
+    @Value("${app.login-throttle.max-per-user:10}")
+    private int maxPerUser;
+
+    @Value("${app.login-throttle.max-per-ip:100}")
+    private int maxPerIp;
+
+    // Distinct usernames (or addresses) expected to fail a login within one window
+    @Value("${app.login-throttle.expected-keys:100000}")
+    private int expectedKeys;
+
+    private SlidingWindowCounter userFailures;
+    private SlidingWindowCounter ipFailures;
+
+    @PostConstruct
+    public void init() {
+        // Four slots per expected key keeps most slots empty, so both of a key's slots
+        // reaching a limit of a few failures takes far more than the expected load
+        userFailures = new SlidingWindowCounter(expectedKeys * 4, windowMillis);
+        ipFailures = new SlidingWindowCounter(expectedKeys * 4, windowMillis);
+    }
+
+    /**
+     * Count a login attempt as failed until release() says otherwise, unless either limit
+     * has already been reached
+     * @return the attempt to release if it does not fail, or null if it should be rejected
+     */
+    public Attempt tryAcquire(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        Reservation ip = null;
+        if (clientIp != null) {
+            ip = ipFailures.tryReserve(clientIp, maxPerIp, now);
+            if (ip == null) {
+                return null;
+            }
+        }
+        Reservation user = null;
+        if (username != null) {
+            user = userFailures.tryReserve(username, maxPerUser, now);
+            if (user == null) {
+                // Turned away before reaching the hasher, so it does not count against the address
+                ipFailures.release(ip);
+                return null;
+            }
+        }
+        return new Attempt(ip, user);
+    }
+
+    /**
+     * Take back the count of an attempt that did not fail on its credentials: the login
+     * succeeded, or something other than the password went wrong
+     */
+    public void release(Attempt attempt) {
+        ipFailures.release(attempt.ip);
+        userFailures.release(attempt.user);
+    }
+
+    /**
+     * Seconds until a rejected caller can expect the window to have moved on
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, windowMillis / 1000);
+    }
+
+    /**
+     * Approximate sliding window: the count for the current fixed window plus the previous
+     * window's count, weighted by how much of it still overlaps the sliding window.
+     *
+     * Each slot packs [window number: 32 bits][previous count: 16][current count: 16] into
+     * one long, updated with compare-and-set.
+     */
+    private static final class SlidingWindowCounter {
+        private static final long COUNT_MASK = 0xFFFF;
+
+        private final AtomicLongArray counters;
+        private final int mask;
+        private final long windowMillis;
+
+        private SlidingWindowCounter(int slots, long windowMillis) {
+            int size = Integer.highestOneBit(Math.max(1024, Math.min(slots, 1 << 30) - 1) << 1);
+            this.counters = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.windowMillis = windowMillis;
+        }
+
+        /**
+         * Conservative update: only the slots whose count is the key's estimate go up.
+         * The other slot already over-counts this key by at least one, from collisions.
+         * Each of those slots is only raised while it is still below the limit, so of
+         * several attempts racing for the last count one gets it and the rest retry and
+         * are turned away.
+         * @return which slots went up, or null if the key is at its limit
+         */
+        private Reservation tryReserve(String key, int limit, long now) {
+            long window = now / windowMillis;
+            double overlap = overlap(now);
+            long hash = hash(key);
+            int first = first(hash);
+            int second = second(hash);
+
+            while (true) {
+                double firstEstimate = estimate(first, window, overlap);
+                double secondEstimate = estimate(second, window, overlap);
+                if (Math.min(firstEstimate, secondEstimate) >= limit) {
+                    return null;
+                }
+                boolean raiseFirst = firstEstimate <= secondEstimate;
+                boolean raiseSecond = secondEstimate <= firstEstimate && second != first;
+                if (raiseFirst && !incrementBelow(first, window, overlap, limit)) {
+                    continue;
+                }
+                if (raiseSecond && !incrementBelow(second, window, overlap, limit)) {
+                    if (raiseFirst) {
+                        decrement(first, window);
+                    }
+                    continue;
+                }
+                return new Reservation(raiseFirst ? first : -1, raiseSecond ? second : -1, window);
+            }
+        }
+
+        private void release(Reservation reservation) {
+            if (reservation == null) {
+                return;
+            }
+            if (reservation.first >= 0) {
+                decrement(reservation.first, reservation.window);
+            }
+            if (reservation.second >= 0) {
+                decrement(reservation.second, reservation.window);
+            }
+        }
+
+        private double overlap(long now) {
+            return 1.0 - (double) (now % windowMillis) / windowMillis;
+        }
+
+        private int first(long hash) {
+            return (int) hash & mask;
+        }
+
+        private int second(long hash) {
+            return (int) (hash >>> 32) & mask;
+        }
+
+        private double estimate(int slot, long window, double overlap) {
+            long packed = roll(counters.get(slot), window);
+            return previous(packed) * overlap + current(packed);
+        }
+
+        /**
+         * @return false, without changing it, if the slot's estimate is already at the limit
+         */
+        private boolean incrementBelow(int slot, long window, double overlap, int limit) {
+            while (true) {
+                long packed = counters.get(slot);
+                long rolled = roll(packed, window);
+                if (previous(rolled) * overlap + current(rolled) >= limit) {
+                    return false;
+                }
+                long count = Math.min(COUNT_MASK, current(rolled) + 1);
+                long updated = (rolled & ~COUNT_MASK) | count;
+                if (counters.compareAndSet(slot, packed, updated)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Undo an increment made in the given window, from the previous count if the slot
+         * has rolled over since; nothing if it has rolled further
+         */
+        private void decrement(int slot, long window) {
+            long incremented = window & 0xFFFFFFFFL;
+            while (true) {
+                long packed = counters.get(slot);
+                long slotWindow = packed >>> 32;
+                long updated;
+                if (slotWindow == incremented && current(packed) > 0) {
+                    updated = packed - 1;
+                } else if (slotWindow == ((incremented + 1) & 0xFFFFFFFFL) && previous(packed) > 0) {
+                    updated = packed - (1L << 16);
+                } else {
+                    return;
+                }
+                if (counters.compareAndSet(slot, packed, updated)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * The slot as it should look in the given window: unchanged if already current,
+         * shifted if it belongs to the previous window, cleared if older
+         */
+        private static long roll(long packed, long window) {
+            long slotWindow = packed >>> 32;
+            long current = window & 0xFFFFFFFFL;
+            if (slotWindow == current) {
+                return packed;
+            }
+            long previousCount = slotWindow == ((current - 1) & 0xFFFFFFFFL) ? current(packed) : 0;
+            return (current << 32) | (previousCount << 16);
+        }
+
+        private static long current(long packed) {
+            return packed & COUNT_MASK;
+        }
+
+        private static long previous(long packed) {
+            return (packed >>> 16) & COUNT_MASK;
+        }
+
+        private static long hash(String key) {
+            // FNV-1a over the UTF-8 bytes, then a final avalanche so both halves are usable
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+
+    /**
+     * The counts one login attempt holds, to be released if it does not fail
+     */
+    public static final class Attempt {
+        private final Reservation ip;
+        private final Reservation user;
+
+        private Attempt(Reservation ip, Reservation user) {
+            this.ip = ip;
+            this.user = user;
+        }
+    }
+
+    private static final class Reservation {
+        // Slots that were raised, or -1
+        private final int first;
+        private final int second;
+        private final long window;
+
+        private Reservation(int first, int second, long window) {
+            this.first = first;
+            this.second = second;
+            this.window = window;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.auth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Random bearer tokens that are stored only as a hash, like refresh and password reset
+ * tokens. Both the token and its hash are 43 base64url characters.
+ */
+public final class OpaqueTokens {
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private OpaqueTokens() {
+    }
+
+    public static String generate() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return encoder.encodeToString(bytes);
+    }
+
+    /**
+     * SHA-256 of the token. The token is random, so no salt or slow hash is needed.
+     */
+    public static String hash(String token) {
+        try {
+            return encoder.encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.auth.security;
 
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,7 +13,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,6 +22,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.example.auth.config.JwtAuthenticationFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
@@ -37,7 +38,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider)
+            throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -48,6 +50,8 @@ public class SecurityConfig {
                     "/api/auth/login", 
                     "/api/auth/register", 
                     "/api/auth/guest",
+                    "/api/auth/availability",
+                    "/api/auth/refresh",
                     "/api/auth/request-password-reset", 
                     "/api/auth/reset-password"
                 ).permitAll()
@@ -60,15 +64,16 @@ public class SecurityConfig {
                     "/api/auth/change-password",
                     "/api/auth/delete-account", 
                     "/api/auth/upgrade-guest",
+                    "/api/auth/logout",
                     "/api/movies/user/**", 
                     "/api/user-data/**"
                 ).hasAnyRole("USER", "GUEST", "ADMIN")
                 // Admin endpoints - only ADMIN role
-                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**", "/api/auth/audit").hasRole("ADMIN")
                 // Other endpoints require authentication (any role)
                 .anyRequest().authenticated()
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .exceptionHandling(exception -> exception
                 .authenticationEntryPoint((request, response, authException) -> 
@@ -92,16 +97,31 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt at a cost calibrated for this machine (or fixed by app.password-hashing.strength),
+     * run on its own bounded pool rather than on request threads
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.password-hashing.threads:0}") int threads,
+            @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.password-hashing.retry-after:1}") long retryAfterSeconds,
+            @Value("${app.password-hashing.strength:0}") int strength,
+            @Value("${app.password-hashing.target-millis:250}") long targetMillis,
+            @Value("${app.password-hashing.min-strength:10}") int minStrength) {
+        CalibratedPasswordEncoder bcrypt = strength > 0
+                ? new CalibratedPasswordEncoder(strength)
+                : CalibratedPasswordEncoder.calibrate(targetMillis, minStrength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,486 @@
+package com.example.auth.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.auth.model.AuthProvider;
+import com.example.auth.model.Role;
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.observer.AuthEventPublisher;
+import com.example.auth.repository.UserRepository;
+import com.example.auth.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulk provisioning and export of users, for migrations and partner onboarding.
+ *
+ * Imports are read a line at a time, as NDJSON or as CSV with a header naming the
+ * username, email, password and (optional) role columns, and handled in batches: one
+ * query each for taken usernames and emails, bcrypt on a bounded pool of its own, then one
+ * JDBC batch insert. Rows that fail are reported by line number and skipped; the rest of
+ * the import carries on.
+ *
+ * Exports read users through a server-side cursor and write each row out as it arrives,
+ * so memory use does not grow with the table. Password hashes are never exported.
+ */
+@Service
+public class BulkUserService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String INSERT_SQL =
+        "INSERT INTO users (username, email, password, role, provider, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String EXPORT_SQL =
+        "SELECT id, username, email, role, provider, updated_at FROM users ORDER BY id";
+    private static final String[] EXPORT_COLUMNS = { "id", "username", "email", "role", "provider", "updatedAt" };
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthEventPublisher eventPublisher;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.bulk.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.bulk.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${app.bulk.export-fetch-size:1000}")
+    private int exportFetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate cursorTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private ThreadPoolExecutor hashingPool;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // A fetch size inside a transaction makes PostgreSQL stream rows from a cursor
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(exportFetchSize);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        // Separate from the login hashing pool, so imports never crowd out logins. When the
+        // queue is full the importing thread hashes too, which slows the import down instead
+        // of buffering more of it.
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        hashingPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * @throws IllegalArgumentException if a CSV body has no usable header
+     */
+    public ImportResult importUsers(BufferedReader reader, Format format) throws IOException {
+        ImportResult result = new ImportResult(maxReportedErrors);
+        List<Row> batch = new ArrayList<>(batchSize);
+        Map<String, Integer> columns = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = header(parseCsvLine(line));
+                continue;
+            }
+
+            Row row;
+            try {
+                row = format == Format.CSV ? csvRow(lineNumber, parseCsvLine(line), columns) : jsonRow(lineNumber, line);
+                validate(row);
+            } catch (IllegalArgumentException e) {
+                result.fail(lineNumber, null, e.getMessage());
+                continue;
+            } catch (JsonProcessingException e) {
+                result.fail(lineNumber, null, "Invalid JSON");
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                flush(batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, result);
+        }
+        return result;
+    }
+
+    public void exportUsers(Writer writer, Format format) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                if (format == Format.CSV) {
+                    writer.write(String.join(",", EXPORT_COLUMNS));
+                    writer.write('\n');
+                }
+                cursorTemplate.query(EXPORT_SQL, rs -> {
+                    Object[] values = {
+                        rs.getLong("id"), rs.getString("username"), rs.getString("email"),
+                        rs.getString("role"), rs.getString("provider"), rs.getObject("updated_at")
+                    };
+                    try {
+                        writer.write(format == Format.CSV ? csvLine(values) : jsonLine(values));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void flush(List<Row> batch, ImportResult result) {
+        // Taken names, looked up for the whole batch at once
+        List<String> usernames = new ArrayList<>(batch.size());
+        List<String> emails = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            usernames.add(row.username);
+            if (row.email != null) {
+                emails.add(row.email);
+            }
+        }
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(usernames));
+        Set<String> takenEmails = emails.isEmpty() ? new HashSet<>()
+                : new HashSet<>(userRepository.findExistingEmails(emails));
+
+        List<Row> accepted = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            // Names accepted earlier in the batch count as taken too
+            if (takenUsernames.contains(row.username)) {
+                result.fail(row.line, row.username, "Username already taken");
+            } else if (row.email != null && takenEmails.contains(row.email)) {
+                result.fail(row.line, row.username, "Email already registered");
+            } else {
+                takenUsernames.add(row.username);
+                if (row.email != null) {
+                    takenEmails.add(row.email);
+                }
+                accepted.add(row);
+            }
+        }
+
+        PasswordEncoder encoder = passwordEncoder.getDelegate();
+        List<Future<String>> hashes = new ArrayList<>(accepted.size());
+        for (Row row : accepted) {
+            hashes.add(hashingPool.submit(() -> encoder.encode(row.password)));
+        }
+        List<Row> hashed = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Row row = accepted.get(i);
+            try {
+                row.encodedPassword = hashes.get(i).get();
+                hashed.add(row);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing passwords", e);
+            } catch (ExecutionException e) {
+                result.fail(row.line, row.username, "Password hashing failed");
+            }
+        }
+        insert(hashed, result);
+    }
+
+    private void insert(List<Row> rows, ImportResult result) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(rows));
+            result.created += rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // A name was taken since the check; go one row at a time to find which
+            for (Row row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(Collections.singletonList(row)));
+                    result.created++;
+                } catch (DataIntegrityViolationException ex) {
+                    result.fail(row.line, row.username, "Username or email already taken");
+                }
+            }
+        }
+    }
+
+    private void insertBatch(List<Row> rows) {
+        long now = System.currentTimeMillis();
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Row row = rows.get(i);
+                        ps.setString(1, row.username);
+                        ps.setString(2, row.email);
+                        ps.setString(3, row.encodedPassword);
+                        ps.setString(4, row.role.name());
+                        ps.setString(5, AuthProvider.LOCAL.name());
+                        ps.setLong(6, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            User user = new User();
+            user.setId(((Number) ids.get(i).values().iterator().next()).longValue());
+            user.setUsername(row.username);
+            user.setEmail(row.email);
+            user.setRole(row.role);
+            user.setProvider(AuthProvider.LOCAL);
+            eventPublisher.publishEvent(new AuthEvent(AuthEvent.EventType.USER_REGISTERED, user, "Bulk import"));
+        }
+    }
+
+    private Row jsonRow(int line, String json) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(json);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return new Row(line, text(node, "username"), text(node, "email"), text(node, "password"), text(node, "role"));
+    }
+
+    private static Row csvRow(int line, List<String> fields, Map<String, Integer> columns) {
+        return new Row(line, field(fields, columns, "username"), field(fields, columns, "email"),
+                field(fields, columns, "password"), field(fields, columns, "role"));
+    }
+
+    private static void validate(Row row) {
+        if (row.username == null || row.username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        if (row.password == null || row.password.isEmpty()) {
+            throw new IllegalArgumentException("Password is required");
+        }
+        if (row.email != null && !EMAIL.matcher(row.email).matches()) {
+            throw new IllegalArgumentException("Invalid email");
+        }
+        if (row.role == Role.GUEST) {
+            throw new IllegalArgumentException("Guests cannot be imported");
+        }
+    }
+
+    private static Map<String, Integer> header(List<String> fields) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey("password")) {
+            throw new IllegalArgumentException("CSV header must name the username and password columns");
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Split one CSV record (RFC 4180 quoting; no line breaks inside fields)
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String csvLine(Object[] values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+
+    private String jsonLine(Object[] values) throws JsonProcessingException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            json.put(EXPORT_COLUMNS[i], values[i]);
+        }
+        return objectMapper.writeValueAsString(json);
+    }
+
+    private static final class Row {
+        private final int line;
+        private final String username;
+        private final String email;
+        private final String password;
+        private final Role role;
+        private String encodedPassword;
+
+        private Row(int line, String username, String email, String password, String role) {
+            this.line = line;
+            this.username = username;
+            this.email = email;
+            this.password = password;
+            try {
+                this.role = role == null ? Role.USER : Role.valueOf(role.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role: " + role);
+            }
+        }
+    }
+
+    /**
+     * Counts for the whole import, and the first max-reported-errors row errors
+     */
+    public static final class ImportResult {
+        private final int maxErrors;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private int created;
+        private int failed;
+
+        private ImportResult(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(int line, String username, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("line", line);
+                if (username != null) {
+                    error.put("username", username);
+                }
+                error.put("message", message);
+                errors.add(error);
+            }
+        }
+
+        public int getCreated() {
+            return created;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public List<Map<String, Object>> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.auth.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deletes guest rows nobody can use any more. A guest has no password, only the token it
+ * was issued, so once a guest row has gone unwritten for longer than a guest token lives
+ * no valid token for it can remain.
+ *
+ * Guests are walked in id order, a chunk per transaction, with a pause between chunks to
+ * stay under max-rows-per-second; short transactions keep lock times and WAL bursts small.
+ * Each chunk also queues ACCOUNT_DELETED in the outbox, so other services can drop the
+ * guests' data too. No other listeners are notified: the guests' tokens have expired and
+ * their principals are never cached.
+ */
+@Service
+public class GuestReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestReaper.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.guest-reaper.ttl:86400000}")
+    private long ttlMillis;
+
+    @Value("${jwt.guest-expiration:86400000}")
+    private long guestTokenLifetime;
+
+    @Value("${app.guest-reaper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.guest-reaper.max-rows-per-second:2000}")
+    private int maxRowsPerSecond;
+
+    // Rows written before updatedAt existed may belong to tokens issued up to a guest token
+    // lifetime before this instance started
+    private final long startedAt = System.currentTimeMillis();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter reaped;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        reaped = Counter.builder("auth.guests.reaped")
+                .description("Stale guest accounts deleted")
+                .register(meterRegistry);
+        runTimer = Timer.builder("auth.guests.reaper.run")
+                .description("Time taken by a guest reaper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.guest-reaper.interval:3600000}",
+               fixedDelayString = "${app.guest-reaper.interval:3600000}")
+    public void reap() {
+        long start = System.nanoTime();
+        // Never shorter than a guest token lives
+        long cutoff = System.currentTimeMillis() - Math.max(ttlMillis, guestTokenLifetime);
+        boolean includeUnknown = startedAt < cutoff;
+        long total = 0;
+        long afterId = 0;
+        try {
+            while (true) {
+                long chunkStart = System.nanoTime();
+                long[] chunk = deleteChunk(afterId, cutoff, includeUnknown);
+                total += chunk[0];
+                reaped.increment(chunk[0]);
+                if (chunk[0] < chunkSize) {
+                    break;
+                }
+                afterId = chunk[1];
+                pace(chunk[0], System.nanoTime() - chunkStart);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Guest reaper stopped after {} rows", total, e);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (total > 0) {
+            logger.info("Reaped {} stale guest accounts", total);
+        }
+    }
+
+    /**
+     * @return the number of rows deleted and the last id seen
+     */
+    private long[] deleteChunk(long afterId, long cutoff, boolean includeUnknown) {
+        return transactionTemplate.execute(status -> {
+            List<User> guests = userRepository.lockStaleGuests(afterId, cutoff, includeUnknown,
+                    PageRequest.of(0, chunkSize));
+            if (guests.isEmpty()) {
+                return new long[] { 0, afterId };
+            }
+            userRepository.deleteAllInBatch(guests);
+            for (User guest : guests) {
+                outboxService.onEvent(new AuthEvent(AuthEvent.EventType.ACCOUNT_DELETED, guest, "Stale guest"));
+            }
+            return new long[] { guests.size(), guests.get(guests.size() - 1).getId() };
+        });
+    }
+
+    private void pace(long rows, long elapsedNanos) throws InterruptedException {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+        if (budgetNanos > elapsedNanos) {
+            TimeUnit.NANOSECONDS.sleep(budgetNanos - elapsedNanos);
+        }
+    }
+}
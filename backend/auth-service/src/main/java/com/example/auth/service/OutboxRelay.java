@@ -0,0 +1,174 @@
+package com.example.auth.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.auth.config.OutboxProperties;
+import com.example.auth.model.OutboxEvent;
+import com.example.auth.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Delivers auth_outbox rows to their subscribers in batches, as a JSON array POSTed to the
+ * subscriber's url. Delivery is at least once: rows are deleted only after a 2xx, in the
+ * same transaction that locked them, so a crash or timeout means the batch is sent again
+ * and consumers must ignore event ids they have already applied.
+ *
+ * The body is signed with an HMAC-SHA256 of the shared JWT secret in the X-Auth-Signature
+ * header. A subscriber that fails is backed off exponentially, up to max-backoff.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private TransactionTemplate transactionTemplate;
+    private HttpClient httpClient;
+
+    // subscriber -> (next attempt, current backoff), only while it is failing
+    private final Map<String, long[]> backoff = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(outboxProperties.getRequestTimeout()))
+            .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void relay() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, OutboxProperties.Subscriber> entry : outboxProperties.getSubscribers().entrySet()) {
+            String name = entry.getKey();
+            long[] failing = backoff.get(name);
+            if (!entry.getValue().isEnabled() || (failing != null && now < failing[0])) {
+                continue;
+            }
+            try {
+                // Keep going while batches come back full
+                int delivered;
+                do {
+                    delivered = deliverBatch(name, entry.getValue());
+                } while (delivered == outboxProperties.getBatchSize());
+                backoff.remove(name);
+            } catch (Exception e) {
+                long delay = failing == null ? INITIAL_BACKOFF_MILLIS
+                        : Math.min(failing[1] * 2, outboxProperties.getMaxBackoff());
+                backoff.put(name, new long[] { now + delay, delay });
+                logger.warn("Failed to deliver auth events to {}, retrying in {} ms: {}", name, delay, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Send one batch and delete it once acknowledged
+     * @return the number of events delivered
+     */
+    private int deliverBatch(String name, OutboxProperties.Subscriber subscriber) {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockBatch(name,
+                    PageRequest.of(0, outboxProperties.getBatchSize()));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            send(subscriber.getUrl(), toJson(batch));
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    private void send(String url, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMillis(outboxProperties.getRequestTimeout()))
+            .header("Content-Type", "application/json")
+            .header(SIGNATURE_HEADER, sign(body))
+            .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+            .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while delivering auth events", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Subscriber answered " + response.statusCode());
+        }
+    }
+
+    private String toJson(List<OutboxEvent> batch) {
+        List<Map<String, Object>> events = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", event.getEventId());
+            json.put("type", event.getEventType());
+            json.put("userId", event.getUserId());
+            json.put("username", event.getUsername());
+            json.put("occurredAt", event.getOccurredAt());
+            events.add(json);
+        }
+        try {
+            return objectMapper.writeValueAsString(events);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String sign(String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.auth.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.auth.config.OutboxProperties;
+import com.example.auth.model.OutboxEvent;
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.observer.AuthEventListener;
+import com.example.auth.repository.OutboxEventRepository;
+
+/**
+ * Observer that records AuthEvents for other services in the auth_outbox table. It runs
+ * synchronously, so the rows commit or roll back together with the user change that
+ * published the event; OutboxRelay delivers them afterwards.
+ */
+@Service
+public class OutboxService implements AuthEventListener {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Override
+    public void onEvent(AuthEvent event) {
+        User user = event.getUser();
+        if (user == null) {
+            return;
+        }
+        String eventId = UUID.randomUUID().toString();
+        for (Map.Entry<String, OutboxProperties.Subscriber> entry : outboxProperties.getSubscribers().entrySet()) {
+            OutboxProperties.Subscriber subscriber = entry.getValue();
+            if (subscriber.isEnabled() && subscriber.getEvents().contains(event.getType())) {
+                outboxEventRepository.save(new OutboxEvent(eventId, entry.getKey(), event.getType().name(),
+                        user.getId(), user.getUsername(), event.getTimestamp().toEpochMilli()));
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(AuthEvent.EventType eventType) {
+        for (OutboxProperties.Subscriber subscriber : outboxProperties.getSubscribers().values()) {
+            if (subscriber.isEnabled() && subscriber.getEvents().contains(eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.auth.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.auth.model.PasswordResetToken;
+import com.example.auth.model.User;
+import com.example.auth.repository.PasswordResetTokenRepository;
+import com.example.auth.security.OpaqueTokens;
+
+/**
+ * Password reset tokens, kept in their own table and looked up by hash. A user has at most
+ * one outstanding token; requesting another replaces it.
+ */
+@Service
+public class PasswordResetTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetTokenService.class);
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Value("${app.password-reset.expiry:3600000}")
+    private long tokenLifetime;
+
+    @Value("${app.password-reset.sweep-chunk:1000}")
+    private int sweepChunk;
+
+    /**
+     * @return the token to send to the user; only its hash is stored
+     */
+    @Transactional
+    public String issue(User user) {
+        passwordResetTokenRepository.deleteByUserId(user.getId());
+        String token = OpaqueTokens.generate();
+        passwordResetTokenRepository.save(new PasswordResetToken(OpaqueTokens.hash(token), user,
+                System.currentTimeMillis() + tokenLifetime));
+        return token;
+    }
+
+    /**
+     * Use up a token, along with any other outstanding token of the same user
+     * @return the user the token was issued to
+     * @throws IllegalArgumentException if the token is unknown or expired
+     */
+    @Transactional
+    public User consume(String token) {
+        PasswordResetToken stored = passwordResetTokenRepository.findByTokenHash(OpaqueTokens.hash(token))
+            .orElseThrow(() -> new IllegalArgumentException("Invalid or expired token"));
+        // Expired rows are left for the sweeper
+        if (stored.getExpiresAt() < System.currentTimeMillis()) {
+            throw new IllegalArgumentException("Token expired");
+        }
+        User user = stored.getUser();
+        passwordResetTokenRepository.deleteByUserId(user.getId());
+        return user;
+    }
+
+    /**
+     * Delete expired tokens a chunk at a time, so the sweep never holds many row locks
+     */
+    @Scheduled(fixedDelayString = "${app.password-reset.sweep-interval:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long total = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = passwordResetTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepChunk));
+                if (!ids.isEmpty()) {
+                    passwordResetTokenRepository.deleteAllByIdInBatch(ids);
+                    total += ids.size();
+                }
+            } while (ids.size() == sweepChunk);
+        } catch (Exception e) {
+            logger.error("Failed to purge expired password reset tokens", e);
+        }
+        if (total > 0) {
+            logger.info("Purged {} expired password reset tokens", total);
+        }
+    }
+}
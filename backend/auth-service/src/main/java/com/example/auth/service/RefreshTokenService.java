@@ -0,0 +1,131 @@
+package com.example.auth.service;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.auth.config.JwtUtil;
+import com.example.auth.model.RefreshToken;
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.observer.AuthEventListener;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.security.OpaqueTokens;
+
+/**
+ * Opaque, rotating refresh tokens. Access tokens are short-lived, so a client keeps its
+ * session by exchanging its refresh token for a new pair; that costs one indexed lookup
+ * and no password hashing.
+ *
+ * As an observer it drops all of a user's refresh tokens when their password changes or
+ * is reset. Deleting a user removes theirs through the foreign key's ON DELETE CASCADE.
+ */
+@Service
+public class RefreshTokenService implements AuthEventListener {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshLifetime;
+
+    /**
+     * Start a new session, after login or registration: a refresh token family, and an
+     * access token that carries its id so the session can be revoked on its own
+     */
+    @Transactional
+    public TokenPair start(User user) {
+        String familyId = UUID.randomUUID().toString();
+        return new TokenPair(jwtUtil.generateToken(user.getUsername(), familyId), issue(user, familyId));
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token
+     * @throws BadCredentialsException if the token is unknown, expired or was already used
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public TokenPair refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(OpaqueTokens.hash(refreshToken))
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (stored.isUsed() || refreshTokenRepository.markUsed(stored.getId()) == 0) {
+            // Presented twice, so a copy is in someone else's hands: end this session, and the
+            // access tokens issued under it, but not the user's sessions on other devices
+            refreshTokenRepository.deleteByFamilyId(stored.getFamilyId());
+            tokenRevocationService.revokeSession(stored.getFamilyId());
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+        if (stored.getExpiresAt() <= System.currentTimeMillis()) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        User user = stored.getUser();
+        return new TokenPair(jwtUtil.generateToken(user.getUsername(), stored.getFamilyId()),
+                issue(user, stored.getFamilyId()));
+    }
+
+    /**
+     * End the session a refresh token belongs to, e.g. on logout
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(OpaqueTokens.hash(refreshToken))
+            .ifPresent(stored -> refreshTokenRepository.deleteByFamilyId(stored.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:3600000}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(System.currentTimeMillis());
+    }
+
+    @Override
+    @Transactional
+    public void onEvent(AuthEvent event) {
+        User user = event.getUser();
+        if (user != null && user.getId() != null) {
+            refreshTokenRepository.deleteByUserId(user.getId());
+        }
+    }
+
+    @Override
+    public boolean supports(AuthEvent.EventType eventType) {
+        return eventType == AuthEvent.EventType.PASSWORD_CHANGED ||
+               eventType == AuthEvent.EventType.PASSWORD_RESET_COMPLETED;
+    }
+
+    private String issue(User user, String familyId) {
+        String token = OpaqueTokens.generate();
+        refreshTokenRepository.save(new RefreshToken(OpaqueTokens.hash(token), familyId, user,
+                System.currentTimeMillis() + refreshLifetime));
+        return token;
+    }
+
+    public static final class TokenPair {
+        private final String accessToken;
+        private final String refreshToken;
+
+        private TokenPair(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
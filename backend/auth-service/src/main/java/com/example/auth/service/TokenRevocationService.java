@@ -0,0 +1,163 @@
+package com.example.auth.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.auth.config.JwtUtil;
+import com.example.auth.model.TokenRevocation;
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.observer.AuthEventListener;
+import com.example.auth.repository.TokenRevocationRepository;
+import com.example.auth.security.TokenRevocationList;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Token revocation: persists deny list entries in token_revocations and keeps the
+ * in-memory TokenRevocationList that JwtAuthenticationFilter checks in sync with it.
+ *
+ * As an observer it revokes all of a user's existing tokens when their password changes
+ * or their account is deleted. Entries written by other auth instances are picked up on
+ * the periodic refresh.
+ */
+@Service
+public class TokenRevocationService implements AuthEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read this far back on refresh, in case rows commit out of createdAt order
+    private static final long REFRESH_OVERLAP_MILLIS = 60_000;
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Value("${jwt.expiration}")
+    private long tokenLifetime;
+
+    @Value("${jwt.guest-expiration:86400000}")
+    private long guestTokenLifetime;
+
+    @Value("${app.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    private TokenRevocationList revocations;
+    private volatile long lastSeen;
+
+    @PostConstruct
+    public void init() {
+        revocations = new TokenRevocationList(expectedTokens);
+        apply(revocationRepository.findByExpiresAtGreaterThan(System.currentTimeMillis()));
+        logger.info("Loaded {} token revocations", revocations.size());
+    }
+
+    public boolean isRevoked(Claims claims) {
+        return revocations.isRevoked(claims.getId(), JwtUtil.sessionId(claims), claims.getSubject(),
+                claims.getIssuedAt());
+    }
+
+    /**
+     * Revoke a single token, e.g. on logout
+     */
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            // Issued before tokens carried an id; fall back to revoking by subject
+            revokeSubject(claims.getSubject());
+            return;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        revocationRepository.save(TokenRevocation.forToken(claims.getId(), expiresAt));
+        afterCommit(() -> revocations.revokeToken(claims.getId(), expiresAt));
+    }
+
+    /**
+     * Revoke every access token issued under one refresh token family, e.g. when a used
+     * refresh token is presented again; the user's other sessions are left alone
+     */
+    public void revokeSession(String sessionId) {
+        // Keep it until the last access token the session could have been issued has expired
+        long expiresAt = System.currentTimeMillis() + tokenLifetime;
+        revocationRepository.save(TokenRevocation.forSession(sessionId, expiresAt));
+        afterCommit(() -> revocations.revokeSession(sessionId, expiresAt));
+    }
+
+    /**
+     * Revoke every token issued to this subject so far
+     */
+    public void revokeSubject(String subject) {
+        long now = System.currentTimeMillis();
+        // Keep the cutoff until the longest-lived token it could match has expired
+        long expiresAt = now + Math.max(tokenLifetime, guestTokenLifetime);
+        revocationRepository.save(TokenRevocation.forSubject(subject, now, expiresAt));
+        afterCommit(() -> revocations.revokeSubject(subject, now, expiresAt));
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.refresh-interval:30000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        try {
+            apply(revocationRepository.findByCreatedAtGreaterThanAndExpiresAtGreaterThan(
+                    lastSeen - REFRESH_OVERLAP_MILLIS, now));
+            revocations.purgeExpired(now);
+            revocationRepository.deleteExpired(now);
+        } catch (Exception e) {
+            logger.error("Failed to refresh token revocations", e);
+        }
+    }
+
+    @Override
+    public void onEvent(AuthEvent event) {
+        User user = event.getUser();
+        if (user != null && user.getUsername() != null) {
+            revokeSubject(user.getUsername());
+        }
+    }
+
+    @Override
+    public boolean supports(AuthEvent.EventType eventType) {
+        return eventType == AuthEvent.EventType.PASSWORD_CHANGED ||
+               eventType == AuthEvent.EventType.PASSWORD_RESET_COMPLETED ||
+               eventType == AuthEvent.EventType.ACCOUNT_DELETED;
+    }
+
+    /**
+     * The in-memory list must only reflect rows that were actually committed; if the
+     * surrounding transaction rolls back, the revocation is dropped along with its row
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void apply(List<TokenRevocation> entries) {
+        long latest = lastSeen;
+        for (TokenRevocation entry : entries) {
+            if (entry.getTokenId() != null) {
+                revocations.revokeToken(entry.getTokenId(), entry.getExpiresAt());
+            } else if (entry.getSessionId() != null) {
+                revocations.revokeSession(entry.getSessionId(), entry.getExpiresAt());
+            } else if (entry.getSubject() != null && entry.getNotBefore() != null) {
+                revocations.revokeSubject(entry.getSubject(), entry.getNotBefore(), entry.getExpiresAt());
+            }
+            latest = Math.max(latest, entry.getCreatedAt());
+        }
+        lastSeen = latest;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.auth.service;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.observer.AuthEventListener;
+import com.example.auth.repository.UserRepository;
+import com.example.auth.security.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Answers "is this username / email free?" for the register form. Every name and email
+ * in use is kept in a Bloom filter, so a free one (the usual answer while someone types)
+ * is known without a query; only possible hits are checked against the users table.
+ *
+ * Filled by a streaming scan of users at startup and kept current as an observer of
+ * registration and account update events. Bloom filters can't forget, so names freed by deletes
+ * or renames stay as possible hits until the next scheduled rebuild, which also picks up
+ * accounts created by other auth instances.
+ */
+@Service
+public class UserAvailabilityService implements AuthEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.availability.expected-users:1000000}")
+    private int expectedUsers;
+
+    private volatile Filters filters;
+
+    // Set while a rebuild is scanning, so additions made meanwhile reach the new filters too
+    private volatile Filters building;
+
+    @PostConstruct
+    public void init() {
+        filters = new Filters(expectedUsers);
+        rebuild();
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return !filters.usernames.mightContain(username) || !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return !filters.emails.mightContain(email) || !userRepository.existsByEmail(email);
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability.rebuild-interval:3600000}",
+               initialDelayString = "${app.availability.rebuild-interval:3600000}")
+    public void rebuild() {
+        try {
+            Filters rebuilt = new Filters(expectedUsers);
+            building = rebuilt;
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            long[] count = new long[1];
+            transaction.executeWithoutResult(status -> {
+                try (Stream<UserRepository.UserIdentity> identities = userRepository.streamIdentities()) {
+                    identities.forEach(identity -> {
+                        rebuilt.add(identity.getUsername(), identity.getEmail());
+                        count[0]++;
+                    });
+                }
+            });
+            filters = rebuilt;
+            building = null;
+            logger.info("Rebuilt availability filters from {} users", count[0]);
+        } catch (Exception e) {
+            building = null;
+            logger.error("Failed to rebuild availability filters", e);
+        }
+    }
+
+    @Override
+    public void onEvent(AuthEvent event) {
+        User user = event.getUser();
+        // Stateless guest sessions have no row and hold no name
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        filters.add(user.getUsername(), user.getEmail());
+        Filters pending = building;
+        if (pending != null) {
+            pending.add(user.getUsername(), user.getEmail());
+        }
+    }
+
+    @Override
+    public boolean supports(AuthEvent.EventType eventType) {
+        // Deletions are left to the next rebuild; until then the exact check answers them
+        return eventType == AuthEvent.EventType.USER_REGISTERED ||
+               eventType == AuthEvent.EventType.ACCOUNT_UPDATED;
+    }
+
+    private static final class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(int expectedUsers) {
+            this.usernames = new BloomFilter(expectedUsers);
+            this.emails = new BloomFilter(expectedUsers);
+        }
+
+        private void add(String username, String email) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+    }
+}
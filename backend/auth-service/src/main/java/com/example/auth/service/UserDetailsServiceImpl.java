@@ -19,9 +19,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
+        return toUserDetails(user);
+    }
+
+    static UserDetails toUserDetails(User user) {
         return org.springframework.security.core.userdetails.User.builder()
             .username(user.getUsername())
-            .password(user.getPassword())
+            // Guest rows have no password; an empty one is accepted here but matches nothing
+            .password(user.getPassword() != null ? user.getPassword() : "")
             .roles(user.getRole().name())
             .build();
     }
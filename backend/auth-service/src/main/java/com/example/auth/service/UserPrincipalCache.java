@@ -0,0 +1,149 @@
+package com.example.auth.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.auth.dto.UserDetailsResponse;
+import com.example.auth.model.User;
+import com.example.auth.observer.AuthEvent;
+import com.example.auth.observer.AuthEventListener;
+import com.example.auth.repository.UserRepository;
+
+/**
+ * Bounded cache of the principals resolved by JwtAuthenticationFilter and the profile
+ * returned by GET /api/auth/user, so authenticated requests don't query the user table
+ * every time.
+ *
+ * Also an observer on AuthEventPublisher: any event that changes a user's username,
+ * password, role or existence evicts that user. Entries expire after a TTL as well,
+ * to pick up changes made outside this service.
+ */
+@Component
+public class UserPrincipalCache implements AuthEventListener {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.user-cache.ttl:300000}")
+    private long ttlMillis;
+
+    private final Map<String, CachedPrincipal> byUsername = new ConcurrentHashMap<>();
+
+    // Events carry the user after the change, so the old username is found through the id
+    private final Map<Long, String> usernameById = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so loads that raced with one are not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserDetails get(String username) {
+        return lookup(username).details;
+    }
+
+    /**
+     * Profile fields for GET /api/auth/user, served from the same cache entry
+     */
+    public UserDetailsResponse getProfile(String username) {
+        CachedPrincipal cached = lookup(username);
+        return new UserDetailsResponse(username, cached.email, cached.role);
+    }
+
+    public void evict(User user) {
+        evictions.incrementAndGet();
+        if (user.getId() != null) {
+            String previous = usernameById.remove(user.getId());
+            if (previous != null) {
+                byUsername.remove(previous);
+            }
+        }
+        if (user.getUsername() != null) {
+            byUsername.remove(user.getUsername());
+        }
+    }
+
+    @Override
+    public void onEvent(AuthEvent event) {
+        User user = event.getUser();
+        if (user == null) {
+            return;
+        }
+        evict(user);
+        // The change is only visible to other requests once the transaction commits, so a
+        // request in between may have re-cached the old row; evict again after commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(user);
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean supports(AuthEvent.EventType eventType) {
+        return eventType == AuthEvent.EventType.ACCOUNT_UPDATED ||
+               eventType == AuthEvent.EventType.PASSWORD_CHANGED ||
+               eventType == AuthEvent.EventType.PASSWORD_RESET_COMPLETED ||
+               eventType == AuthEvent.EventType.ACCOUNT_DELETED;
+    }
+
+    private CachedPrincipal lookup(String username) {
+        CachedPrincipal cached = byUsername.get(username);
+        if (cached != null && System.currentTimeMillis() < cached.expiresAt) {
+            return cached;
+        }
+
+        long seen = evictions.get();
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        cached = new CachedPrincipal(UserDetailsServiceImpl.toUserDetails(user), user.getEmail(),
+                user.getRole().toString(), System.currentTimeMillis() + ttlMillis);
+        if (evictions.get() == seen) {
+            if (byUsername.size() >= maxEntries) {
+                trim();
+            }
+            usernameById.put(user.getId(), username);
+            byUsername.put(username, cached);
+        }
+        return cached;
+    }
+
+    private void trim() {
+        long now = System.currentTimeMillis();
+        byUsername.values().removeIf(cached -> cached.expiresAt <= now);
+        int target = maxEntries - maxEntries / 10;
+        Iterator<String> iterator = byUsername.keySet().iterator();
+        while (byUsername.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        usernameById.values().removeIf(username -> !byUsername.containsKey(username));
+    }
+
+    private static final class CachedPrincipal {
+        private final UserDetails details;
+        private final String email;
+        private final String role;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserDetails details, String email, String role, long expiresAt) {
+            this.details = details;
+            this.email = email;
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
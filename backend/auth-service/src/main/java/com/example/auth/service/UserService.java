@@ -1,18 +1,19 @@
 package com.example.auth.service;
 
-import java.time.Instant;
 import java.util.Optional;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.auth.config.JwtUtil;
 import com.example.auth.dto.UpdateProfileRequest;
+import com.example.auth.exception.PasswordHashingRejectedException;
 import com.example.auth.factory.UserFactory;
 import com.example.auth.model.Role;
 import com.example.auth.model.User;
@@ -21,6 +22,8 @@ import com.example.auth.observer.AuthEventPublisher;
 import com.example.auth.repository.UserRepository;
 import com.example.auth.strategy.AuthenticationStrategy;
 
+import io.jsonwebtoken.Claims;
+
 import java.util.List;
 
 @Service
@@ -41,13 +44,16 @@ public class UserService {
     @Autowired
     private AuthEventPublisher eventPublisher;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @Autowired
     private List<AuthenticationStrategy> authStrategies;
     
-    @Value("${app.password-reset.expiry:3600000}")
-    private long passwordResetTokenExpiry;
+    @Autowired
+    private PasswordResetTokenService passwordResetTokenService;
 
-    public String registerUser(User user) {
+    public User registerUser(User user) {
         try {
             if (findByUsername(user.getUsername()).isPresent()) {
                 throw new IllegalArgumentException("Username already taken");
@@ -71,7 +77,9 @@ public class UserService {
             // Using Observer Pattern to notify about user registration
             eventPublisher.publishEvent(new AuthEvent(AuthEvent.EventType.USER_REGISTERED, savedUser));
             
-            return jwtUtil.generateToken(savedUser.getUsername());
+            return savedUser;
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Database exception: " + e.getMessage());
         } catch (Exception e) {
@@ -81,15 +89,23 @@ public class UserService {
     
     public String registerGuestUser() {
         try {
-            // Using Factory Method Pattern to create a guest user
-            User guestUser = userFactory.createGuestUser();
-            
-            User savedUser = userRepository.save(guestUser);
+            // Using Strategy pattern for a transient guest; no row is written until the guest
+            // does something that has to be stored (see findOrCreateGuest)
+            User guestUser = null;
+            for (AuthenticationStrategy strategy : authStrategies) {
+                if (strategy.supports("guest")) {
+                    guestUser = strategy.authenticate();
+                    break;
+                }
+            }
+            if (guestUser == null) {
+                throw new IllegalStateException("No guest authentication strategy");
+            }
             
             // Using Observer Pattern to notify about guest user registration
-            eventPublisher.publishEvent(new AuthEvent(AuthEvent.EventType.USER_REGISTERED, savedUser, "Guest account"));
+            eventPublisher.publishEvent(new AuthEvent(AuthEvent.EventType.USER_REGISTERED, guestUser, "Guest account"));
             
-            return jwtUtil.generateToken(savedUser.getUsername());
+            return jwtUtil.generateGuestToken(guestUser.getUsername());
         } catch (Exception e) {
             throw new RuntimeException("Guest registration failed: " + e.getMessage());
         }
@@ -103,7 +119,7 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
-    public String loginUser(String username, String rawPassword) {
+    public User loginUser(String username, String rawPassword) {
         // Using Strategy pattern to select the appropriate authentication method
         User user = null;
         for (AuthenticationStrategy strategy : authStrategies) {
@@ -111,20 +127,65 @@ public class UserService {
                 try {
                     user = strategy.authenticate(username, rawPassword);
                     break;
-                } catch (RuntimeException e) {
-                    // Try the next strategy
+                } catch (BadCredentialsException e) {
+                    // Try the next strategy; anything else, such as an overloaded hasher
+                    // (503) or the database being down, is not a wrong password
                 }
             }
         }
         
         if (user == null) {
-            throw new RuntimeException("Invalid username or password");
+            throw new BadCredentialsException("Invalid username or password");
         }
         
+        rehashIfNeeded(user, rawPassword);
+        
         // Using Observer Pattern to notify about login event
         eventPublisher.publishEvent(new AuthEvent(AuthEvent.EventType.USER_LOGIN, user));
         
-        return jwtUtil.generateToken(user.getUsername());
+        return user;
+    }
+
+    /**
+     * Guest sessions have no users row until they first need one. Only the guest named in
+     * the current request's token may have one created; anyone else is just not found.
+     * The row is saved by the caller along with its changes.
+     */
+    private User findOrCreateGuest(String username) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean guestSession = auth != null && username.equals(auth.getName()) &&
+            auth.getAuthorities().stream().anyMatch(a -> ("ROLE_" + Role.GUEST.name()).equals(a.getAuthority()));
+        if (!guestSession) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return userFactory.createGuestUser(username);
+    }
+
+    /**
+     * The password has just been verified, so this is the one chance to move its hash to
+     * the current bcrypt cost. Not an account change, so no event is published.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+        } catch (PasswordHashingRejectedException e) {
+            // Busy; the login itself succeeded, so just try again next time
+        }
+    }
+
+    /**
+     * Revoke the presented token so it can no longer be used, even before it expires
+     */
+    public void logoutUser(String token) {
+        Claims claims = jwtUtil.verify(token);
+        tokenRevocationService.revokeToken(claims);
+        
+        userRepository.findByUsername(claims.getSubject()).ifPresent(user ->
+            eventPublisher.publishEvent(new AuthEvent(AuthEvent.EventType.USER_LOGOUT, user)));
     }
 
     @Transactional  
@@ -138,6 +199,13 @@ public class UserService {
                 userRepository.findByUsername(userUpdate.getUsername()).isPresent()) {
                 throw new IllegalArgumentException("Username already exists");
             }
+
+            boolean emailChanged = userUpdate.getEmail() != null && !userUpdate.getEmail().isEmpty() &&
+                !userUpdate.getEmail().equals(existingUser.getEmail());
+            // Check if email is already in use, before anything is changed
+            if (emailChanged && userRepository.findByEmail(userUpdate.getEmail()).isPresent()) {
+                throw new IllegalArgumentException("Email already in use");
+            }
             
             // Only update password if provided
             if (userUpdate.getPassword() != null && !userUpdate.getPassword().isEmpty()) {
@@ -146,15 +214,14 @@ public class UserService {
             
             // Update only provided fields
             if (userUpdate.getUsername() != null && !userUpdate.getUsername().isEmpty()) {
+                if (!userUpdate.getUsername().equals(existingUser.getUsername())) {
+                    // Tokens carry the username, so the ones for the old name must stop working
+                    tokenRevocationService.revokeSubject(existingUser.getUsername());
+                }
                 existingUser.setUsername(userUpdate.getUsername());
             }
             
-            if (userUpdate.getEmail() != null && !userUpdate.getEmail().isEmpty() &&
-                !userUpdate.getEmail().equals(existingUser.getEmail())) {
-                // Check if email is already in use
-                if (userRepository.findByEmail(userUpdate.getEmail()).isPresent()) {
-                    throw new IllegalArgumentException("Email already in use");
-                }
+            if (emailChanged) {
                 existingUser.setEmail(userUpdate.getEmail());
             }
             
@@ -173,25 +240,29 @@ public class UserService {
     @Transactional
     public void updateUserProfile(String username, UpdateProfileRequest profileUpdate) {
         User existingUser = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            .orElseGet(() -> findOrCreateGuest(username));
         
+        boolean usernameChanged = profileUpdate.getUsername() != null && !profileUpdate.getUsername().isEmpty() &&
+            !profileUpdate.getUsername().equals(existingUser.getUsername());
+        boolean emailChanged = profileUpdate.getEmail() != null && !profileUpdate.getEmail().isEmpty() && 
+            !profileUpdate.getEmail().equals(existingUser.getEmail());
+
+        // Validate everything before changing anything
+        if (usernameChanged && userRepository.findByUsername(profileUpdate.getUsername()).isPresent()) {
+            throw new IllegalArgumentException("Username already in use");
+        }
+        if (emailChanged && userRepository.findByEmail(profileUpdate.getEmail()).isPresent()) {
+            throw new IllegalArgumentException("Email already in use");
+        }
+
         // Update username if provided
-        if (profileUpdate.getUsername() != null && !profileUpdate.getUsername().isEmpty() &&
-            !profileUpdate.getUsername().equals(existingUser.getUsername())) {
-            // Check if username is already in use
-            if (userRepository.findByUsername(profileUpdate.getUsername()).isPresent()) {
-                throw new IllegalArgumentException("Username already in use");
-            }
+        if (usernameChanged) {
+            tokenRevocationService.revokeSubject(existingUser.getUsername());
             existingUser.setUsername(profileUpdate.getUsername());
         }
         
         // Update email if provided
-        if (profileUpdate.getEmail() != null && !profileUpdate.getEmail().isEmpty() && 
-            !profileUpdate.getEmail().equals(existingUser.getEmail())) {
-            // Check if email is already in use
-            if (userRepository.findByEmail(profileUpdate.getEmail()).isPresent()) {
-                throw new IllegalArgumentException("Email already in use");
-            }
+        if (emailChanged) {
             existingUser.setEmail(profileUpdate.getEmail());
         }
         
@@ -218,38 +289,26 @@ public class UserService {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new IllegalArgumentException("Email not found"));
         
-        // Generate a unique reset token
-        String resetToken = UUID.randomUUID().toString();
-        user.setResetToken(resetToken);
-        user.setResetTokenExpiry(Instant.now().toEpochMilli() + passwordResetTokenExpiry); // 1 hour expiry
-        
-        User updatedUser = userRepository.save(user);
+        // Only the token's hash is stored
+        String resetToken = passwordResetTokenService.issue(user);
         
         // Using Observer Pattern to notify about password reset request
         eventPublisher.publishEvent(new AuthEvent(
             AuthEvent.EventType.PASSWORD_RESET_REQUESTED, 
-            updatedUser, 
+            user, 
             "Reset token: " + resetToken
         ));
         
         // In a real application, you would send an email here with the resetToken
-        // For this demo, we'll just save it to the database
     }
     
     @Transactional
     public void confirmPasswordReset(String token, String newPassword) {
-        User user = userRepository.findByResetToken(token)
-            .orElseThrow(() -> new IllegalArgumentException("Invalid or expired token"));
-        
-        // Check if token is expired
-        if (user.getResetTokenExpiry() < Instant.now().toEpochMilli()) {
-            throw new IllegalArgumentException("Token expired");
-        }
+        // Checks expiry and uses up the token
+        User user = passwordResetTokenService.consume(token);
         
         // Reset the password
         user.setPassword(passwordEncoder.encode(newPassword));
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
         
         User updatedUser = userRepository.save(user);
         
@@ -282,9 +341,9 @@ public class UserService {
     }
     
     @Transactional
-    public String upgradeGuestToUser(String guestUsername, String username, String email, String password) {
+    public User upgradeGuestToUser(String guestUsername, String username, String email, String password) {
         User guestUser = userRepository.findByUsername(guestUsername)
-            .orElseThrow(() -> new IllegalArgumentException("Guest user not found"));
+            .orElseGet(() -> findOrCreateGuest(guestUsername));
         
         // Verify this is a guest account
         if (guestUser.getRole() != Role.GUEST) {
@@ -304,6 +363,9 @@ public class UserService {
         }
         
         // Update guest user to regular user
+        if (!guestUser.getUsername().equals(username)) {
+            tokenRevocationService.revokeSubject(guestUser.getUsername());
+        }
         guestUser.setUsername(username);
         guestUser.setEmail(email);
         guestUser.setPassword(passwordEncoder.encode(password));
@@ -318,12 +380,11 @@ public class UserService {
             "Upgraded from guest account"
         ));
         
-        // Return new token with updated username
-        return jwtUtil.generateToken(upgradedUser.getUsername());
+        return upgradedUser;
     }
     
     @Transactional
-    public String upgradeGuestToUser(String guestUsername, User userDetails) {
+    public User upgradeGuestToUser(String guestUsername, User userDetails) {
         return upgradeGuestToUser(guestUsername, userDetails.getUsername(), userDetails.getEmail(), userDetails.getPassword());
     }
 }
\ No newline at end of file
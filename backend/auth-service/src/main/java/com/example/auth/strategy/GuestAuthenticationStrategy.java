@@ -4,7 +4,6 @@ import com.example.auth.model.User;
 import com.example.auth.model.Role;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
 import java.util.UUID;
 
 @Component
@@ -15,9 +14,10 @@ public class GuestAuthenticationStrategy implements AuthenticationStrategy {
         // Create a temporary guest user
         User guestUser = new User();
         guestUser.setId(null); // Will not be persisted
-        guestUser.setUsername("guest_" + UUID.randomUUID().toString().substring(0, 8));
-        guestUser.setEmail("guest@example.com");
-        guestUser.setPassword(""); // No password for guest
+        // No users row is checked for uniqueness up front, so use enough random bits not to collide
+        guestUser.setUsername("guest_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16));
+        guestUser.setPassword(null); // No password for guest
+        guestUser.setRole(Role.GUEST);
         
         return guestUser;
     }
@@ -2,6 +2,7 @@ package com.example.auth.strategy;
 
 import com.example.auth.model.User;
 import com.example.auth.repository.UserRepository;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -39,7 +40,7 @@ public class UsernamePasswordAuthenticationStrategy implements AuthenticationStr
             }
         }
         
-        throw new RuntimeException("Invalid username or password");
+        throw new BadCredentialsException("Invalid username or password");
     }
 
     @Override
@@ -0,0 +1,107 @@
+package com.example.auth.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import com.example.auth.audit.SecurityAuditLog;
+import com.example.auth.observer.AuthEvent;
+
+/**
+ * Sustained append throughput and query latency of SecurityAuditLog. Fills a month of
+ * synthetic history (daily segments), then times queries of different shapes: a narrow
+ * time window, which the segment ranges and sparse index narrow down to a few blocks,
+ * against a single user's whole history, which has to scan every record.
+ *
+ * Run with: java -cp target/classes:target/test-classes:<deps>
+ *   com.example.auth.benchmark.AuditLogBenchmark
+ */
+public class AuditLogBenchmark {
+
+    private static final long DAY = 86_400_000L;
+    private static final int DAYS = 30;
+    private static final int RECORDS = 6_000_000;
+    private static final int USERS = 50_000;
+    private static final int THREADS = 4;
+    private static final int QUERY_ROUNDS = 200;
+
+    private static final AuthEvent.EventType[] TYPES = AuthEvent.EventType.values();
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("audit-benchmark");
+        try {
+            SecurityAuditLog log = new SecurityAuditLog(directory.toString(), DAY, 1 << 20, 365 * DAY);
+            long start = System.currentTimeMillis() - DAYS * DAY;
+            long step = DAYS * DAY / RECORDS;
+
+            long begin = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                log.append(start + i * step, TYPES[i % TYPES.length], (long) (i % USERS));
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("%-40s %12.0f records/s%n", "append, 1 thread", RECORDS / seconds);
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            int perThread = RECORDS / 10 / THREADS;
+            begin = System.nanoTime();
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(System.currentTimeMillis(), AuthEvent.EventType.USER_LOGIN, (long) (i % USERS));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            seconds = (System.nanoTime() - begin) / 1e9;
+            executor.shutdown();
+            System.out.printf("%-40s %12.0f records/s%n", "append, " + THREADS + " threads", perThread * THREADS / seconds);
+
+            long hourAgo = start + 15 * DAY;
+            System.out.printf("%n%-40s %12s %10s%n", "query", "ms/query", "results");
+            measure("1 hour window, all users", () -> log.query(null, hourAgo, hourAgo + DAY / 24, 100_000).size());
+            measure("1 hour window, one user", () -> log.query(42L, hourAgo, hourAgo + DAY / 24, 100_000).size());
+            measure("1 day window, one user", () -> log.query(42L, hourAgo, hourAgo + DAY, 100_000).size());
+            measure("all " + DAYS + " days, one user", () -> log.query(42L, 0, Long.MAX_VALUE, 100_000).size());
+
+            log.close();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        // best effort
+                    }
+                });
+            }
+        }
+    }
+
+    private static void measure(String name, QueryRun query) {
+        int results = 0;
+        for (int i = 0; i < QUERY_ROUNDS / 5; i++) {
+            results = query.run();
+        }
+        int rounds = QUERY_ROUNDS;
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            results = query.run();
+        }
+        double millis = (System.nanoTime() - begin) / 1e6 / rounds;
+        System.out.printf("%-40s %12.3f %10d%n", name, millis, results);
+    }
+
+    private interface QueryRun {
+        int run();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BulkUserServiceCsvTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("alice", "alice@example.com", "USER"),
+                BulkUserService.parseCsvLine("alice,alice@example.com,USER"));
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of("", "b", ""), BulkUserService.parseCsvLine(",b,"));
+        assertEquals(List.of(""), BulkUserService.parseCsvLine(""));
+    }
+
+    @Test
+    void quotedFieldMayContainCommas() {
+        assertEquals(List.of("Smith, Alice", "x"), BulkUserService.parseCsvLine("\"Smith, Alice\",x"));
+    }
+
+    @Test
+    void doubledQuoteInsideQuotedFieldIsOneQuote() {
+        assertEquals(List.of("say \"hi\"", "y"), BulkUserService.parseCsvLine("\"say \"\"hi\"\"\",y"));
+        assertEquals(List.of("\""), BulkUserService.parseCsvLine("\"\"\"\""));
+    }
+
+    @Test
+    void emptyQuotedFieldIsEmpty() {
+        assertEquals(List.of("", "z"), BulkUserService.parseCsvLine("\"\",z"));
+    }
+
+    @Test
+    void quotedAndPlainPartsOfOneFieldAreJoined() {
+        assertEquals(List.of("ab,c"), BulkUserService.parseCsvLine("a\"b,\"c"));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BulkUserService.parseCsvLine("\"open,x"));
+        assertThrows(IllegalArgumentException.class, () -> BulkUserService.parseCsvLine("\"a\"\""));
+    }
+}
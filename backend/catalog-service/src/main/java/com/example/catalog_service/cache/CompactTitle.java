@@ -0,0 +1,336 @@
+package com.example.catalog_service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+
+/**
+ * Memory-compact summary of a movie or TV show as held in the catalog caches.
+ *
+ * Unlike the public Movie/TvShow DTOs there are no boxed numbers or lists: scores are
+ * primitive doubles (NaN for null), the air/release date is packed as yyyymmdd, genres are
+ * an int[], language and country codes are dictionary-encoded shorts, and all free text is
+ * packed into a single UTF-8 byte[]. DTOs are rebuilt only when a response is serialized.
+ */
+public final class CompactTitle {
+
+    public static final byte MOVIE = 0;
+    public static final byte TV_SHOW = 1;
+
+    private static final String YOUTUBE_PREFIX = "https://www.youtube.com/watch?v=";
+
+    // Text slots, packed in this order into the text block
+    private static final int TITLE = 0;
+    private static final int ORIGINAL_NAME = 1;
+    private static final int OVERVIEW = 2;
+    private static final int POSTER_PATH = 3;
+    private static final int BACKDROP_PATH = 4;
+    private static final int TRAILER = 5;
+    static final int TEXT_SLOTS = 6;
+
+    // Bit 0-5: slot is null, bit 6: trailer holds only the YouTube video key
+    private static final int YOUTUBE_TRAILER_BIT = 1 << TEXT_SLOTS;
+
+    private static final int DATE_NULL = 0;
+    private static final int DATE_EMPTY = -1;
+    private static final int VOTE_COUNT_NULL = Integer.MIN_VALUE;
+
+    private final long id;
+    private final byte kind;
+    private final byte flags;
+    private final short language;
+    private final int date;
+    private final int voteCount;
+    private final double voteAverage;
+    private final double popularity;
+    private final int[] genreIds;
+    private final short[] originCountries;
+    private final byte[] text;
+    private final int titleEnd;
+    private final int originalNameEnd;
+    private final int overviewEnd;
+    private final int posterPathEnd;
+    private final int backdropPathEnd;
+
+    private CompactTitle(long id, byte kind, int flags, short language, int date, int voteCount,
+                         double voteAverage, double popularity, int[] genreIds, short[] originCountries,
+                         byte[] text, int[] ends) {
+        this.id = id;
+        this.kind = kind;
+        this.flags = (byte) flags;
+        this.language = language;
+        this.date = date;
+        this.voteCount = voteCount;
+        this.voteAverage = voteAverage;
+        this.popularity = popularity;
+        this.genreIds = genreIds;
+        this.originCountries = originCountries;
+        this.text = text;
+        this.titleEnd = ends[TITLE];
+        this.originalNameEnd = ends[ORIGINAL_NAME];
+        this.overviewEnd = ends[OVERVIEW];
+        this.posterPathEnd = ends[POSTER_PATH];
+        this.backdropPathEnd = ends[BACKDROP_PATH];
+    }
+
+    public static CompactTitle fromMovie(Movie movie, StringDictionary languages, StringDictionary countries) {
+        return encode(movie.getId(), MOVIE,
+                new String[] {movie.getTitle(), null, movie.getOverview(), movie.getPosterPath(),
+                        movie.getBackdropPath(), movie.getTrailerUrl()},
+                movie.getReleaseDate(), movie.getVoteCount(), movie.getVoteAverage(), null,
+                movie.getGenreIds(), null, null, languages, countries);
+    }
+
+    public static CompactTitle fromTvShow(TvShow tvShow, StringDictionary languages, StringDictionary countries) {
+        return encode(tvShow.getId(), TV_SHOW,
+                new String[] {tvShow.getName(), tvShow.getOriginalName(), tvShow.getOverview(),
+                        tvShow.getPosterPath(), tvShow.getBackdropPath(), tvShow.getTrailerUrl()},
+                tvShow.getFirstAirDate(), tvShow.getVoteCount(), tvShow.getVoteAverage(), tvShow.getPopularity(),
+                tvShow.getGenreIds(), tvShow.getOriginalLanguage(), tvShow.getOriginCountry(), languages, countries);
+    }
+
+    /**
+     * Rebuild a title from the fields persisted by TitleStore
+     */
+    static CompactTitle restore(long key, byte flags, short language, int date, int voteCount,
+                                double voteAverage, double popularity, int[] genreIds, short[] originCountries,
+                                byte[] text, int[] ends) {
+        return new CompactTitle(key >>> 1, (byte) (key & 1), flags, language, date, voteCount,
+                voteAverage, popularity, genreIds, originCountries, text, ends);
+    }
+
+    /**
+     * Cache key combining the TMDB id with the title kind, since movie and TV ids overlap
+     */
+    public static long key(byte kind, long id) {
+        return (id << 1) | kind;
+    }
+
+    public long key() {
+        return key(kind, id);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public byte getKind() {
+        return kind;
+    }
+
+    // Raw fields, for TitleStore
+
+    byte getFlags() {
+        return flags;
+    }
+
+    short getLanguage() {
+        return language;
+    }
+
+    int getDate() {
+        return date;
+    }
+
+    int getVoteCount() {
+        return voteCount;
+    }
+
+    double getVoteAverage() {
+        return voteAverage;
+    }
+
+    double getPopularity() {
+        return popularity;
+    }
+
+    int[] getGenreIds() {
+        return genreIds;
+    }
+
+    short[] getOriginCountries() {
+        return originCountries;
+    }
+
+    byte[] getText() {
+        return text;
+    }
+
+    int[] getTextEnds() {
+        return new int[] {titleEnd, originalNameEnd, overviewEnd, posterPathEnd, backdropPathEnd, text.length};
+    }
+
+    public Movie toMovie() {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(text(TITLE));
+        movie.setOverview(text(OVERVIEW));
+        movie.setPosterPath(text(POSTER_PATH));
+        movie.setBackdropPath(text(BACKDROP_PATH));
+        movie.setReleaseDate(decodeDate(date));
+        movie.setVoteAverage(Double.isNaN(voteAverage) ? null : voteAverage);
+        movie.setVoteCount(voteCount == VOTE_COUNT_NULL ? null : voteCount);
+        movie.setGenreIds(genreList());
+        movie.setTrailerUrl(getTrailerUrl());
+        return movie;
+    }
+
+    public TvShow toTvShow(StringDictionary languages, StringDictionary countries) {
+        TvShow tvShow = new TvShow();
+        tvShow.setId(id);
+        tvShow.setName(text(TITLE));
+        tvShow.setOriginalName(text(ORIGINAL_NAME));
+        tvShow.setOverview(text(OVERVIEW));
+        tvShow.setPosterPath(text(POSTER_PATH));
+        tvShow.setBackdropPath(text(BACKDROP_PATH));
+        tvShow.setFirstAirDate(decodeDate(date));
+        tvShow.setVoteAverage(Double.isNaN(voteAverage) ? null : voteAverage);
+        tvShow.setVoteCount(voteCount == VOTE_COUNT_NULL ? null : voteCount);
+        tvShow.setPopularity(Double.isNaN(popularity) ? null : popularity);
+        tvShow.setGenreIds(genreList());
+        tvShow.setOriginalLanguage(languages.decode(language));
+        if (originCountries != null) {
+            List<String> origin = new ArrayList<>(originCountries.length);
+            for (short code : originCountries) {
+                origin.add(countries.decode(code));
+            }
+            tvShow.setOriginCountry(origin);
+        }
+        tvShow.setTrailerUrl(getTrailerUrl());
+        return tvShow;
+    }
+
+    private static CompactTitle encode(Long id, byte kind, String[] slots, String date, Integer voteCount,
+                                       Double voteAverage, Double popularity, List<Integer> genres,
+                                       String language, List<String> origin,
+                                       StringDictionary languages, StringDictionary countries) {
+        int flags = 0;
+        String trailer = slots[TRAILER];
+        if (trailer != null && trailer.startsWith(YOUTUBE_PREFIX)) {
+            slots[TRAILER] = trailer.substring(YOUTUBE_PREFIX.length());
+            flags |= YOUTUBE_TRAILER_BIT;
+        }
+
+        byte[][] encoded = new byte[TEXT_SLOTS][];
+        int length = 0;
+        for (int i = 0; i < TEXT_SLOTS; i++) {
+            if (slots[i] == null) {
+                flags |= 1 << i;
+                encoded[i] = new byte[0];
+            } else {
+                encoded[i] = slots[i].getBytes(StandardCharsets.UTF_8);
+            }
+            length += encoded[i].length;
+        }
+
+        byte[] text = new byte[length];
+        int[] ends = new int[TEXT_SLOTS];
+        int offset = 0;
+        for (int i = 0; i < TEXT_SLOTS; i++) {
+            System.arraycopy(encoded[i], 0, text, offset, encoded[i].length);
+            offset += encoded[i].length;
+            ends[i] = offset;
+        }
+
+        int[] genreIds = null;
+        if (genres != null) {
+            genreIds = new int[genres.size()];
+            for (int i = 0; i < genreIds.length; i++) {
+                genreIds[i] = genres.get(i);
+            }
+        }
+
+        short[] originCountries = null;
+        if (origin != null) {
+            originCountries = new short[origin.size()];
+            for (int i = 0; i < originCountries.length; i++) {
+                originCountries[i] = countries.encode(origin.get(i));
+            }
+        }
+
+        return new CompactTitle(id, kind, flags, languages.encode(language), encodeDate(date),
+                voteCount == null ? VOTE_COUNT_NULL : voteCount,
+                voteAverage == null ? Double.NaN : voteAverage,
+                popularity == null ? Double.NaN : popularity,
+                genreIds, originCountries, text, ends);
+    }
+
+    private String text(int slot) {
+        if ((flags & (1 << slot)) != 0) {
+            return null;
+        }
+        int start = slot == 0 ? 0 : end(slot - 1);
+        return new String(text, start, end(slot) - start, StandardCharsets.UTF_8);
+    }
+
+    private int end(int slot) {
+        switch (slot) {
+            case TITLE: return titleEnd;
+            case ORIGINAL_NAME: return originalNameEnd;
+            case OVERVIEW: return overviewEnd;
+            case POSTER_PATH: return posterPathEnd;
+            case BACKDROP_PATH: return backdropPathEnd;
+            default: return text.length;
+        }
+    }
+
+    public String getTrailerUrl() {
+        String trailer = text(TRAILER);
+        if (trailer != null && (flags & YOUTUBE_TRAILER_BIT) != 0) {
+            return YOUTUBE_PREFIX + trailer;
+        }
+        return trailer;
+    }
+
+    private List<Integer> genreList() {
+        if (genreIds == null) {
+            return null;
+        }
+        List<Integer> genres = new ArrayList<>(genreIds.length);
+        for (int genreId : genreIds) {
+            genres.add(genreId);
+        }
+        return genres;
+    }
+
+    static int encodeDate(String date) {
+        if (date == null) {
+            return DATE_NULL;
+        }
+        // TMDB dates are always yyyy-MM-dd or an empty string for unknown dates
+        if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return DATE_EMPTY;
+        }
+        try {
+            return Integer.parseInt(date, 0, 4, 10) * 10000
+                    + Integer.parseInt(date, 5, 7, 10) * 100
+                    + Integer.parseInt(date, 8, 10, 10);
+        } catch (NumberFormatException e) {
+            return DATE_EMPTY;
+        }
+    }
+
+    static String decodeDate(int date) {
+        if (date == DATE_NULL) {
+            return null;
+        }
+        if (date == DATE_EMPTY) {
+            return "";
+        }
+        char[] chars = {'0', '0', '0', '0', '-', '0', '0', '-', '0', '0'};
+        int year = date / 10000;
+        int month = date / 100 % 100;
+        int day = date % 100;
+        for (int i = 3; i >= 0; i--, year /= 10) {
+            chars[i] = (char) ('0' + year % 10);
+        }
+        chars[5] = (char) ('0' + month / 10);
+        chars[6] = (char) ('0' + month % 10);
+        chars[8] = (char) ('0' + day / 10);
+        chars[9] = (char) ('0' + day % 10);
+        return new String(chars);
+    }
+}
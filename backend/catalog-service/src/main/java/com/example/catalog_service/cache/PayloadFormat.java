@@ -0,0 +1,93 @@
+package com.example.catalog_service.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Wire encodings the catalog can produce. JSON stays the default; CBOR and Smile are
+ * compact binary encodings of the same model classes, selected through the Accept header.
+ */
+public enum PayloadFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    // Client preference: highest q first, then named types before wildcards. The sort is
+    // stable, so the header's own order breaks the remaining ties
+    private static final Comparator<MediaType> PREFERENCE = Comparator
+            .comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(Comparator.comparingInt(PayloadFormat::specificity).reversed());
+
+    private final MediaType mediaType;
+
+    PayloadFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Pick the best format for an Accept header, falling back to JSON when the header
+     * is missing, malformed or only lists types we do not produce. A format named with
+     * q=0 is never picked, even through a wildcard.
+     */
+    public static PayloadFormat fromAcceptHeader(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        Set<PayloadFormat> refused = EnumSet.noneOf(PayloadFormat.class);
+        List<MediaType> preferred = new ArrayList<>(acceptedTypes.size());
+        for (MediaType accepted : acceptedTypes) {
+            if (accepted.getQualityValue() > 0) {
+                preferred.add(accepted);
+            } else if (specificity(accepted) == 2) {
+                PayloadFormat format = named(accepted);
+                if (format != null) {
+                    refused.add(format);
+                }
+            }
+        }
+        preferred.sort(PREFERENCE);
+
+        for (MediaType accepted : preferred) {
+            // Wildcards resolve to JSON, so binary is only ever served when asked for by name
+            PayloadFormat format = specificity(accepted) == 2 ? named(accepted) : JSON;
+            if (format != null && !refused.contains(format)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    private static PayloadFormat named(MediaType accepted) {
+        for (PayloadFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(accepted)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 0 for a full wildcard, 1 for type/* and 2 for a concrete type
+     */
+    private static int specificity(MediaType mediaType) {
+        return mediaType.isWildcardType() ? 0 : mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.catalog_service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Response-level cache for hot catalog payloads (popular/trending pages and detail views).
+ * Each entry holds the loaded value for one key and, once a wire format (JSON, CBOR or Smile)
+ * has been asked for, its encoded bytes plus a pre-gzipped copy for larger bodies. Repeat
+ * requests skip Jackson entirely and the bytes are written straight to the response, and a
+ * new format for a cached key is encoded without calling upstream again.
+ */
+@Component
+public class ResponseByteCache {
+
+    private final Map<PayloadFormat, ObjectMapper> mappers = new EnumMap<>(PayloadFormat.class);
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final int gzipMinSize;
+
+    // Access-ordered map gives us LRU eviction once maxEntries is reached
+    private final Map<String, CachedEntry> entries;
+
+    // In-flight loads, so concurrent misses on the same key hit upstream only once
+    private final Map<String, CompletableFuture<CachedEntry>> loading = new ConcurrentHashMap<>();
+
+    public ResponseByteCache(ObjectMapper objectMapper,
+                             @Value("${catalog.response-cache.max-entries:512}") int maxEntries,
+                             @Value("${catalog.response-cache.ttl:300000}") long ttlMillis,
+                             @Value("${catalog.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        // Binary mappers are built the same way Spring MVC builds its CBOR/Smile converters,
+        // so cached and uncached endpoints encode identically
+        this.mappers.put(PayloadFormat.JSON, objectMapper);
+        this.mappers.put(PayloadFormat.CBOR, Jackson2ObjectMapperBuilder.cbor().build());
+        this.mappers.put(PayloadFormat.SMILE, Jackson2ObjectMapperBuilder.smile().build());
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.gzipMinSize = gzipMinSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                return size() > ResponseByteCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Serve the payload for the given key in the format picked from the Accept header,
+     * loading and encoding it on a miss. A null result from the loader maps to 404; empty
+     * collections are served but not cached, since TmdbService returns them when the
+     * upstream call failed.
+     */
+    public ResponseEntity<byte[]> respond(String key, String accept, String acceptEncoding, Supplier<?> loader) {
+        PayloadFormat format = PayloadFormat.fromAcceptHeader(accept);
+        CachedEntry entry = getOrLoad(key, loader);
+        if (entry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        CachedPayload payload = encoded(entry, format);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        if (payload.gzipBody != null && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzipBody);
+        }
+        return builder.body(payload.body);
+    }
+
+    public void evict(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private CachedEntry getOrLoad(String key, Supplier<?> loader) {
+        CachedEntry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        CompletableFuture<CachedEntry> ownLoad = new CompletableFuture<>();
+        CompletableFuture<CachedEntry> inFlight = loading.putIfAbsent(key, ownLoad);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+
+        try {
+            CachedEntry loaded = load(loader);
+            if (loaded != null && loaded.cacheable) {
+                synchronized (entries) {
+                    entries.put(key, loaded);
+                }
+            }
+            ownLoad.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            ownLoad.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, ownLoad);
+        }
+    }
+
+    private CachedEntry load(Supplier<?> loader) {
+        Object value = loader.get();
+        if (value == null) {
+            return null;
+        }
+
+        boolean cacheable = !(value instanceof Collection<?> collection && collection.isEmpty());
+        return new CachedEntry(value, System.currentTimeMillis() + ttlMillis, cacheable);
+    }
+
+    /**
+     * The entry's bytes in the given format, encoded on first use. Two requests may encode
+     * the same format at once; the first to finish is kept and the other copy dropped.
+     */
+    private CachedPayload encoded(CachedEntry entry, PayloadFormat format) {
+        CachedPayload payload = entry.payloads.get(format.ordinal());
+        if (payload != null) {
+            return payload;
+        }
+
+        byte[] body;
+        try {
+            body = mappers.get(format).writeValueAsBytes(entry.value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode catalog response", e);
+        }
+        byte[] gzipBody = body.length >= gzipMinSize ? gzip(body) : null;
+
+        payload = new CachedPayload(body, gzipBody);
+        return entry.payloads.compareAndSet(format.ordinal(), null, payload)
+                ? payload
+                : entry.payloads.get(format.ordinal());
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // In-memory streams do not fail; serve the identity body if they somehow do
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: named with q > 0, or left unnamed and
+     * covered by "*" with q > 0. A gzip named with q=0 is refused even when "*" is accepted.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String[] param = parts[i].split("=", 2);
+                if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+                    quality = qualityValue(param[1].trim());
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    // A malformed q-value counts as 0, so a garbled header falls back to the identity body
+    private static double qualityValue(String value) {
+        try {
+            double quality = Double.parseDouble(value);
+            return quality >= 0 && quality <= 1 ? quality : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    /**
+     * Loaded value of a cached response, with its encodings in each format asked for so far
+     */
+    private static final class CachedEntry {
+        private final Object value;
+        private final AtomicReferenceArray<CachedPayload> payloads =
+                new AtomicReferenceArray<>(PayloadFormat.values().length);
+        private final long expiresAt;
+        private final boolean cacheable;
+
+        private CachedEntry(Object value, long expiresAt, boolean cacheable) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.cacheable = cacheable;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    /**
+     * Encoded body of a cached response, with an optional gzipped copy
+     */
+    private static final class CachedPayload {
+        private final byte[] body;
+        private final byte[] gzipBody;
+
+        private CachedPayload(byte[] body, byte[] gzipBody) {
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.catalog_service.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for low-cardinality strings such as ISO language and country codes.
+ * Each distinct value is stored once and cached summaries only keep its short code.
+ */
+public final class StringDictionary {
+
+    public static final short NONE = -1;
+
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size;
+
+    public short encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Short code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == Short.MAX_VALUE) {
+                throw new IllegalStateException("String dictionary is full");
+            }
+
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value.intern();
+            // Re-publish through the volatile field so readers see the new slot
+            values = current;
+            code = (short) size++;
+            codes.put(value, code);
+            return code;
+        }
+    }
+
+    public String decode(short code) {
+        return code == NONE ? null : values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,543 @@
+package com.example.catalog_service.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Memory-mapped store of title summaries for the whole catalog, keyed by CompactTitle.key.
+ *
+ * Two files live in the store directory:
+ * - titles.idx: a header followed by fixed 64-byte records holding the numeric fields of
+ *   each title and a reference into the data file
+ * - titles.dat: append-only blobs with the text, genres, language and origin countries
+ *
+ * The key to record index is a primitive open-addressing hash table on the heap, rebuilt
+ * by scanning the records at startup. A lookup is a probe of that table plus reads from
+ * the mapped files, with no per-title objects kept on the heap. Writers are serialized;
+ * readers use optimistic StampedLock reads and only block while a write is in progress.
+ */
+@Component
+public class TitleStore {
+
+    private static final int MAGIC = 0x43545331; // "CTS1"
+    private static final int VERSION = 1;
+
+    private static final int RECORD_SIZE = 64;
+    private static final int RECORDS_PER_SEGMENT = 1 << 20;
+    private static final long RECORD_SEGMENT_SIZE = (long) RECORD_SIZE * RECORDS_PER_SEGMENT;
+    private static final int DATA_SEGMENT_SIZE = 64 << 20;
+
+    // Header, stored in place of record 0
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_COUNT = 8;
+    private static final int HEADER_DATA_END = 16;
+
+    // Record layout
+    private static final int KEY = 0;
+    private static final int DATE = 8;
+    private static final int VOTE_COUNT = 12;
+    private static final int VOTE_AVERAGE = 16;
+    private static final int POPULARITY = 24;
+    private static final int BLOB_OFFSET = 32;
+    private static final int BLOB_LENGTH = 40;
+    private static final int BLOB_CAPACITY = 44;
+    private static final int FLAGS = 48;
+
+    private static final int NULL_LENGTH = 0xFF;
+    private static final long EMPTY_KEY = -1;
+
+    private final StampedLock lock = new StampedLock();
+    private final FileChannel recordChannel;
+    private final FileChannel dataChannel;
+
+    private volatile MappedByteBuffer[] recordSegments = new MappedByteBuffer[0];
+    private volatile MappedByteBuffer[] dataSegments = new MappedByteBuffer[0];
+
+    // Open-addressing index from title key to record number, guarded by the lock
+    private long[] indexKeys;
+    private int[] indexRecords;
+    private int indexed;
+    private int count;
+    private long dataEnd;
+
+    public TitleStore(@Value("${catalog.title-store.path:data/title-store}") String path) {
+        try {
+            Path directory = Paths.get(path);
+            Files.createDirectories(directory);
+            recordChannel = FileChannel.open(directory.resolve("titles.idx"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            dataChannel = FileChannel.open(directory.resolve("titles.dat"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open title store at " + path, e);
+        }
+    }
+
+    /**
+     * Insert or replace a title. Returns false if the title could not be stored.
+     */
+    public boolean put(CompactTitle title, StringDictionary languages, StringDictionary countries) {
+        byte[] blob = encodeBlob(title, languages, countries);
+        if (blob.length > DATA_SEGMENT_SIZE) {
+            return false;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            long key = title.key();
+            int record = findRecord(key);
+            boolean added = record < 0;
+            if (added) {
+                record = count + 1;
+                ensureRecordCapacity(record);
+            }
+            ByteBuffer records = recordSegment(record);
+            int base = recordOffset(record);
+
+            long blobOffset;
+            int capacity;
+            if (!added && blob.length <= records.getInt(base + BLOB_CAPACITY)) {
+                // Rewrite in place when the new blob fits in the old one's space
+                blobOffset = records.getLong(base + BLOB_OFFSET);
+                capacity = records.getInt(base + BLOB_CAPACITY);
+            } else {
+                blobOffset = allocateBlob(blob.length);
+                capacity = blob.length;
+            }
+            mapDataSegment(blobOffset).put(dataOffset(blobOffset), blob);
+
+            records.putLong(base + KEY, key);
+            records.putInt(base + DATE, title.getDate());
+            records.putInt(base + VOTE_COUNT, title.getVoteCount());
+            records.putDouble(base + VOTE_AVERAGE, title.getVoteAverage());
+            records.putDouble(base + POPULARITY, title.getPopularity());
+            records.putLong(base + BLOB_OFFSET, blobOffset);
+            records.putInt(base + BLOB_LENGTH, blob.length);
+            records.putInt(base + BLOB_CAPACITY, capacity);
+            records.put(base + FLAGS, title.getFlags());
+
+            if (added) {
+                count = record;
+                index(key, record);
+            }
+            // Publish the record only after its contents are written
+            ByteBuffer header = recordSegments[0];
+            header.putLong(HEADER_DATA_END, dataEnd);
+            header.putInt(HEADER_COUNT, count);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Look up a title, or null if it has never been stored
+     */
+    public CompactTitle get(long key, StringDictionary languages, StringDictionary countries) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                StoredTitle stored = read(key);
+                if (lock.validate(stamp)) {
+                    // Only now is it known not to be torn, so its strings can go into the dictionaries
+                    return stored == null ? null : stored.restore(languages, countries);
+                }
+            } catch (RuntimeException e) {
+                // A concurrent write left us reading a half-updated record or index; read()
+                // checks every length before allocating, so this is all it can throw. Retry
+                // under the lock
+            }
+        }
+
+        StoredTitle stored;
+        stamp = lock.readLock();
+        try {
+            stored = read(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return stored == null ? null : stored.restore(languages, countries);
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            for (MappedByteBuffer segment : recordSegments) {
+                segment.force();
+            }
+            for (MappedByteBuffer segment : dataSegments) {
+                segment.force();
+            }
+            recordChannel.close();
+            dataChannel.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void open() throws IOException {
+        ensureRecordCapacity(0);
+        ByteBuffer header = recordSegments[0];
+        if (header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != VERSION) {
+            // New or incompatible file: start empty
+            header.putInt(HEADER_MAGIC, MAGIC);
+            header.putInt(HEADER_VERSION, VERSION);
+            header.putInt(HEADER_COUNT, 0);
+            header.putLong(HEADER_DATA_END, 0);
+        }
+        count = header.getInt(HEADER_COUNT);
+        dataEnd = header.getLong(HEADER_DATA_END);
+
+        int capacity = 1024;
+        while (capacity < count * 2L) {
+            capacity <<= 1;
+        }
+        indexKeys = new long[capacity];
+        indexRecords = new int[capacity];
+        Arrays.fill(indexKeys, EMPTY_KEY);
+
+        ensureRecordCapacity(count);
+        for (int record = 1; record <= count; record++) {
+            index(recordSegment(record).getLong(recordOffset(record) + KEY), record);
+        }
+        if (dataEnd > 0) {
+            mapDataSegment(dataEnd - 1);
+        }
+    }
+
+    /**
+     * Without the lock this can see a record, index or blob halfway through an update, so
+     * every offset and length is checked against what it points into before it is used to
+     * allocate; anything out of range is an IllegalStateException and the caller retries.
+     * It has no side effects, since what it returns is garbage until the read is validated.
+     */
+    private StoredTitle read(long key) {
+        int record = findRecord(key);
+        if (record < 0) {
+            return null;
+        }
+        if (record == 0 || record > count) {
+            throw new IllegalStateException("Title record " + record + " out of range");
+        }
+        ByteBuffer records = recordSegment(record);
+        int base = recordOffset(record);
+        if (records.getLong(base + KEY) != key) {
+            throw new IllegalStateException("Title record " + record + " does not hold key " + key);
+        }
+        long blobOffset = records.getLong(base + BLOB_OFFSET);
+        int blobLength = records.getInt(base + BLOB_LENGTH);
+        MappedByteBuffer[] segments = dataSegments;
+        if (blobOffset < 0 || blobOffset / DATA_SEGMENT_SIZE >= segments.length
+                || blobLength < CompactTitle.TEXT_SLOTS * 4
+                || dataOffset(blobOffset) + (long) blobLength > DATA_SEGMENT_SIZE) {
+            throw new IllegalStateException("Corrupt title record " + record);
+        }
+        byte[] blob = new byte[blobLength];
+        segments[(int) (blobOffset / DATA_SEGMENT_SIZE)].get(dataOffset(blobOffset), blob);
+
+        ByteBuffer in = ByteBuffer.wrap(blob);
+        int[] ends = new int[CompactTitle.TEXT_SLOTS];
+        int previous = 0;
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = in.getInt();
+            if (ends[i] < previous || ends[i] > in.remaining() + previous) {
+                throw new IllegalStateException("Corrupt title blob in record " + record);
+            }
+            previous = ends[i];
+        }
+        byte[] text = new byte[ends[ends.length - 1]];
+        in.get(text);
+
+        int[] genreIds = null;
+        int genreCount = in.get() & 0xFF;
+        if (genreCount != NULL_LENGTH) {
+            genreIds = new int[genreCount];
+            for (int i = 0; i < genreCount; i++) {
+                genreIds[i] = in.getInt();
+            }
+        }
+        String language = readString(in);
+        String[] originCountries = null;
+        int countryCount = in.get() & 0xFF;
+        if (countryCount != NULL_LENGTH) {
+            originCountries = new String[countryCount];
+            for (int i = 0; i < countryCount; i++) {
+                originCountries[i] = readString(in);
+            }
+        }
+
+        return new StoredTitle(key, records.get(base + FLAGS), language,
+                records.getInt(base + DATE), records.getInt(base + VOTE_COUNT),
+                records.getDouble(base + VOTE_AVERAGE), records.getDouble(base + POPULARITY),
+                genreIds, originCountries, text, ends);
+    }
+
+    private static byte[] encodeBlob(CompactTitle title, StringDictionary languages, StringDictionary countries) {
+        int[] genreIds = title.getGenreIds();
+        short[] originCountries = title.getOriginCountries();
+        byte[] text = title.getText();
+        byte[] language = utf8(languages.decode(title.getLanguage()));
+
+        byte[][] origin = null;
+        int size = CompactTitle.TEXT_SLOTS * 4 + text.length
+                + 1 + (genreIds == null ? 0 : Math.min(genreIds.length, NULL_LENGTH - 1) * 4)
+                + 1 + (language == null ? 0 : language.length)
+                + 1;
+        if (originCountries != null) {
+            origin = new byte[Math.min(originCountries.length, NULL_LENGTH - 1)][];
+            for (int i = 0; i < origin.length; i++) {
+                origin[i] = utf8(countries.decode(originCountries[i]));
+                size += 1 + (origin[i] == null ? 0 : origin[i].length);
+            }
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        for (int end : title.getTextEnds()) {
+            out.putInt(end);
+        }
+        out.put(text);
+        if (genreIds == null) {
+            out.put((byte) NULL_LENGTH);
+        } else {
+            int genreCount = Math.min(genreIds.length, NULL_LENGTH - 1);
+            out.put((byte) genreCount);
+            for (int i = 0; i < genreCount; i++) {
+                out.putInt(genreIds[i]);
+            }
+        }
+        writeString(out, language);
+        if (origin == null) {
+            out.put((byte) NULL_LENGTH);
+        } else {
+            out.put((byte) origin.length);
+            for (byte[] country : origin) {
+                writeString(out, country);
+            }
+        }
+        return out.array();
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Language and country codes are short ISO codes; anything longer is not worth keeping
+        return bytes.length < NULL_LENGTH ? bytes : null;
+    }
+
+    private static void writeString(ByteBuffer out, byte[] value) {
+        if (value == null) {
+            out.put((byte) NULL_LENGTH);
+        } else {
+            out.put((byte) value.length);
+            out.put(value);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.get() & 0xFF;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private int findRecord(long key) {
+        long[] keys = indexKeys;
+        int[] records = indexRecords;
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long candidate = keys[slot];
+            if (candidate == key) {
+                return records[slot];
+            }
+            if (candidate == EMPTY_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    private void index(long key, int record) {
+        if ((indexed + 1) * 2L > indexKeys.length) {
+            rehash(indexKeys.length << 1);
+        }
+        int mask = indexKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (indexKeys[slot] != EMPTY_KEY && indexKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (indexKeys[slot] == EMPTY_KEY) {
+            indexed++;
+        }
+        indexRecords[slot] = record;
+        indexKeys[slot] = key;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = indexKeys;
+        int[] oldRecords = indexRecords;
+        long[] keys = new long[capacity];
+        int[] records = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                records[slot] = oldRecords[i];
+            }
+        }
+        indexKeys = keys;
+        indexRecords = records;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private long allocateBlob(int length) throws IOException {
+        long offset = dataEnd;
+        // Blobs never straddle two mapped segments
+        if (offset % DATA_SEGMENT_SIZE + length > DATA_SEGMENT_SIZE) {
+            offset = (offset / DATA_SEGMENT_SIZE + 1) * DATA_SEGMENT_SIZE;
+        }
+        dataEnd = offset + length;
+        mapDataSegment(offset);
+        return offset;
+    }
+
+    private void ensureRecordCapacity(int record) throws IOException {
+        int segment = record / RECORDS_PER_SEGMENT;
+        MappedByteBuffer[] segments = recordSegments;
+        if (segment < segments.length) {
+            return;
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(segments, segment + 1);
+        for (int i = segments.length; i <= segment; i++) {
+            grown[i] = recordChannel.map(FileChannel.MapMode.READ_WRITE, i * RECORD_SEGMENT_SIZE, RECORD_SEGMENT_SIZE);
+        }
+        recordSegments = grown;
+    }
+
+    private ByteBuffer recordSegment(int record) {
+        return recordSegments[record / RECORDS_PER_SEGMENT];
+    }
+
+    private static int recordOffset(int record) {
+        return (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    private ByteBuffer dataSegment(long offset) {
+        return dataSegments[(int) (offset / DATA_SEGMENT_SIZE)];
+    }
+
+    /**
+     * Like dataSegment, but maps the segment if needed. Only called with the write lock
+     * held or during startup.
+     */
+    private ByteBuffer mapDataSegment(long offset) {
+        int segment = (int) (offset / DATA_SEGMENT_SIZE);
+        MappedByteBuffer[] segments = dataSegments;
+        if (segment < segments.length) {
+            return segments[segment];
+        }
+        try {
+            MappedByteBuffer[] grown = Arrays.copyOf(segments, segment + 1);
+            for (int i = segments.length; i <= segment; i++) {
+                grown[i] = dataChannel.map(FileChannel.MapMode.READ_WRITE, (long) i * DATA_SEGMENT_SIZE,
+                        DATA_SEGMENT_SIZE);
+            }
+            dataSegments = grown;
+            return grown[segment];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int dataOffset(long offset) {
+        return (int) (offset % DATA_SEGMENT_SIZE);
+    }
+
+    /**
+     * A title as read from the files, with its language and countries still as strings,
+     * so reading one does not touch the shared dictionaries
+     */
+    private static final class StoredTitle {
+        private final long key;
+        private final byte flags;
+        private final String language;
+        private final int date;
+        private final int voteCount;
+        private final double voteAverage;
+        private final double popularity;
+        private final int[] genreIds;
+        private final String[] originCountries;
+        private final byte[] text;
+        private final int[] ends;
+
+        private StoredTitle(long key, byte flags, String language, int date, int voteCount,
+                            double voteAverage, double popularity, int[] genreIds, String[] originCountries,
+                            byte[] text, int[] ends) {
+            this.key = key;
+            this.flags = flags;
+            this.language = language;
+            this.date = date;
+            this.voteCount = voteCount;
+            this.voteAverage = voteAverage;
+            this.popularity = popularity;
+            this.genreIds = genreIds;
+            this.originCountries = originCountries;
+            this.text = text;
+            this.ends = ends;
+        }
+
+        private CompactTitle restore(StringDictionary languages, StringDictionary countries) {
+            short[] countryCodes = null;
+            if (originCountries != null) {
+                countryCodes = new short[originCountries.length];
+                for (int i = 0; i < originCountries.length; i++) {
+                    countryCodes[i] = countries.encode(originCountries[i]);
+                }
+            }
+            return CompactTitle.restore(key, flags, languages.encode(language), date, voteCount,
+                    voteAverage, popularity, genreIds, countryCodes, text, ends);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.catalog_service.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+
+/**
+ * Cache of movie and TV show summaries, plus the id lists of recently fetched result pages.
+ * Summaries are kept in the memory-mapped TitleStore, so every title seen upstream stays
+ * available across restarts; only the page id lists live on the heap. Pages are rebuilt
+ * into fresh Movie/TvShow DTOs on every read, so callers are free to mutate what they get
+ * back (e.g. SearchService's contentType).
+ */
+@Component
+public class TitleSummaryCache {
+
+    private final StringDictionary languages = new StringDictionary();
+    private final StringDictionary countries = new StringDictionary();
+
+    private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+
+    private final TitleStore titles;
+    private final int maxPages;
+    private final long pageTtlMillis;
+
+    public TitleSummaryCache(TitleStore titles,
+                             @Value("${catalog.title-cache.max-pages:2000}") int maxPages,
+                             @Value("${catalog.title-cache.page-ttl:600000}") long pageTtlMillis) {
+        this.titles = titles;
+        this.maxPages = maxPages;
+        this.pageTtlMillis = pageTtlMillis;
+    }
+
+    public List<Movie> getMoviePage(String pageKey) {
+        long[] keys = pageKeys(pageKey);
+        if (keys == null) {
+            return null;
+        }
+        List<Movie> movies = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            CompactTitle title = titles.get(key, languages, countries);
+            if (title == null) {
+                // The title could not be stored, so refetch the whole page
+                pages.remove(pageKey);
+                return null;
+            }
+            movies.add(title.toMovie());
+        }
+        return movies;
+    }
+
+    public List<TvShow> getTvShowPage(String pageKey) {
+        long[] keys = pageKeys(pageKey);
+        if (keys == null) {
+            return null;
+        }
+        List<TvShow> tvShows = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            CompactTitle title = titles.get(key, languages, countries);
+            if (title == null) {
+                pages.remove(pageKey);
+                return null;
+            }
+            tvShows.add(title.toTvShow(languages, countries));
+        }
+        return tvShows;
+    }
+
+    /**
+     * Store a page of movies. Empty pages are skipped, since TmdbService returns them
+     * when the upstream call failed.
+     */
+    public void putMoviePage(String pageKey, List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return;
+        }
+        long[] keys = new long[movies.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Movie movie = movies.get(i);
+            if (movie.getId() == null) {
+                return;
+            }
+            keys[i] = put(CompactTitle.fromMovie(movie, languages, countries));
+        }
+        putPage(pageKey, keys);
+    }
+
+    public void putTvShowPage(String pageKey, List<TvShow> tvShows) {
+        if (tvShows.isEmpty()) {
+            return;
+        }
+        long[] keys = new long[tvShows.size()];
+        for (int i = 0; i < keys.length; i++) {
+            TvShow tvShow = tvShows.get(i);
+            if (tvShow.getId() == null) {
+                return;
+            }
+            keys[i] = put(CompactTitle.fromTvShow(tvShow, languages, countries));
+        }
+        putPage(pageKey, keys);
+    }
+
+    public void putMovie(Movie movie) {
+        if (movie.getId() != null) {
+            put(CompactTitle.fromMovie(movie, languages, countries));
+        }
+    }
+
+    public void putTvShow(TvShow tvShow) {
+        if (tvShow.getId() != null) {
+            put(CompactTitle.fromTvShow(tvShow, languages, countries));
+        }
+    }
+
+    /**
+     * Look up a stored summary, or null if the title has never been fetched
+     */
+    public CompactTitle find(byte kind, long id) {
+        return titles.get(CompactTitle.key(kind, id), languages, countries);
+    }
+
+    public Movie findMovie(long id) {
+        CompactTitle title = find(CompactTitle.MOVIE, id);
+        return title == null ? null : title.toMovie();
+    }
+
+    public TvShow findTvShow(long id) {
+        CompactTitle title = find(CompactTitle.TV_SHOW, id);
+        return title == null ? null : title.toTvShow(languages, countries);
+    }
+
+    public int size() {
+        return titles.size();
+    }
+
+    private long put(CompactTitle title) {
+        titles.put(title, languages, countries);
+        return title.key();
+    }
+
+    private void putPage(String pageKey, long[] keys) {
+        pages.put(pageKey, new CachedPage(keys, System.currentTimeMillis() + pageTtlMillis));
+        if (pages.size() > maxPages) {
+            trim(pages, maxPages);
+        }
+    }
+
+    private long[] pageKeys(String pageKey) {
+        CachedPage page = pages.get(pageKey);
+        if (page == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() > page.expiresAt) {
+            pages.remove(pageKey, page);
+            return null;
+        }
+        return page.keys;
+    }
+
+    /**
+     * Drop entries until the map is back to 90% of its limit. ConcurrentHashMap iterates
+     * in hash order, which gives a cheap approximation of random eviction.
+     */
+    private static void trim(Map<?, ?> map, int limit) {
+        int target = limit - limit / 10;
+        Iterator<?> iterator = map.keySet().iterator();
+        while (map.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Keys of the titles on one result page, in page order
+     */
+    private static final class CachedPage {
+        private final long[] keys;
+        private final long expiresAt;
+
+        private CachedPage(long[] keys, long expiresAt) {
+            this.keys = keys;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
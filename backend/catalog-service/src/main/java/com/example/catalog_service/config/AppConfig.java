@@ -2,9 +2,11 @@ package com.example.catalog_service.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableConfigurationProperties({JwtProperties.class, TmdbProperties.class})
+@EnableScheduling
 public class AppConfig {
     
 }
\ No newline at end of file
@@ -7,8 +7,14 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.security.Key;
 
@@ -17,13 +23,52 @@ import java.security.Key;
 public class JwtUtil{
 
     private Key secretkey;
+    private JwtParser parser;
 
     @Value("${jwt.secret}")
     private String secret;
 
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    // Claims of tokens that already passed signature verification, keyed by a hash of the token
+    private final Map<TokenHash, VerifiedToken> verified = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init(){
         this.secretkey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretkey)
+                .build();
+    }
+
+    /**
+     * Parse and verify a token once, returning its claims. Tokens seen before are served
+     * from the verified-claims cache until their own expiry, skipping signature checks.
+     *
+     * @throws ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed or its signature does not match
+     */
+    public Claims verify(String token){
+        TokenHash hash = TokenHash.of(token);
+        VerifiedToken cached = verified.get(hash);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiresAt) {
+                return cached.claims;
+            }
+            verified.remove(hash, cached);
+            throw new ExpiredJwtException(null, cached.claims, "JWT expired at " + cached.claims.getExpiration());
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        // Tokens without an expiry are verified every time rather than cached forever
+        if (claims.getExpiration() != null) {
+            if (verified.size() >= maxCachedTokens) {
+                evict();
+            }
+            verified.put(hash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
 
     public String extractUsername(String token){
@@ -35,22 +80,13 @@ public class JwtUtil{
     }
 
     public boolean validateToken(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        Claims claims = verify(token);
+        return claims.getSubject().equals(username) && !claims.getExpiration().before(new Date());
     }
 
     public <T> T extractClaims(String token,Function<Claims,T> claimsResolver){
-        Key secretKey = this.secretkey;
         try{
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
         }
         catch(ExpiredJwtException e){
             throw new RuntimeException("Token expired.Please login again.");
@@ -60,4 +96,64 @@ public class JwtUtil{
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Drop expired entries, then arbitrary ones if the cache is still full
+     */
+    private void evict(){
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(token -> token.expiresAt <= now);
+        Iterator<TokenHash> iterator = verified.keySet().iterator();
+        int target = maxCachedTokens - maxCachedTokens / 10;
+        while (verified.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * First 128 bits of the token's SHA-256, so the cache does not hold on to raw tokens
+     */
+    private static final class TokenHash {
+        private final long high;
+        private final long low;
+
+        private TokenHash(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        private static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenHash(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TokenHash)) {
+                return false;
+            }
+            TokenHash other = (TokenHash) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high);
+        }
+    }
+
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
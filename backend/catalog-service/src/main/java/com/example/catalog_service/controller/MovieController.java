@@ -1,10 +1,11 @@
 package com.example.catalog_service.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.cache.ResponseByteCache;
 import com.example.catalog_service.model.Movie;
 import com.example.catalog_service.service.TmdbService;
 
@@ -17,19 +18,36 @@ public class MovieController {
     @Autowired
     private TmdbService tmdbService;
     
+    @Autowired
+    private ResponseByteCache responseCache;
+    
     @GetMapping("/popular")
-    public ResponseEntity<List<Movie>> getPopularMovies(
-            @RequestParam(defaultValue = "1") int page) {
-        List<Movie> movies = tmdbService.getPopularMovies(page);
-        return ResponseEntity.ok(movies);
+    public ResponseEntity<byte[]> getPopularMovies(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("movies:popular:" + page, accept, acceptEncoding,
+                () -> tmdbService.getPopularMovies(page));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getMovieById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         // Use the enhanced method to get detailed movie information
-        return tmdbService.getDetailedMovieInfo(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return responseCache.respond("movies:detail:" + id, accept, acceptEncoding,
+                () -> tmdbService.getDetailedMovieInfo(id).orElse(null));
+    }
+    
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<byte[]> getMovieSummary(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Lightweight list-view fields only, for watchlists and other places that don't need credits
+        return responseCache.respond("movies:summary:" + id, accept, acceptEncoding,
+                () -> tmdbService.getMovieSummary(id).orElse(null));
     }
     
     @GetMapping("/search")
@@ -39,4 +57,4 @@ public class MovieController {
         List<Movie> movies = tmdbService.searchMovies(query, page);
         return ResponseEntity.ok(movies);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,11 @@
 package com.example.catalog_service.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.cache.ResponseByteCache;
 import com.example.catalog_service.model.TvShow;
 import com.example.catalog_service.service.TmdbService;
 
@@ -17,18 +18,35 @@ public class TvShowController {
     @Autowired
     private TmdbService tmdbService;
     
+    @Autowired
+    private ResponseByteCache responseCache;
+    
     @GetMapping("/popular")
-    public ResponseEntity<List<TvShow>> getPopularTvShows(
-            @RequestParam(defaultValue = "1") int page) {
-        List<TvShow> tvShows = tmdbService.getPopularTvShows(page);
-        return ResponseEntity.ok(tvShows);
+    public ResponseEntity<byte[]> getPopularTvShows(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("tvshows:popular:" + page, accept, acceptEncoding,
+                () -> tmdbService.getPopularTvShows(page));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> getTvShowById(@PathVariable Long id) {
-        return tmdbService.getDetailedTvShowInfo(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getTvShowById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("tvshows:detail:" + id, accept, acceptEncoding,
+                () -> tmdbService.getDetailedTvShowInfo(id).orElse(null));
+    }
+    
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<byte[]> getTvShowSummary(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Lightweight list-view fields only, for watchlists and other places that don't need credits
+        return responseCache.respond("tvshows:summary:" + id, accept, acceptEncoding,
+                () -> tmdbService.getTvShowSummary(id).orElse(null));
     }
     
     @GetMapping("/search")
@@ -40,17 +58,21 @@ public class TvShowController {
     }
     
     @GetMapping("/trending")
-    public ResponseEntity<List<TvShow>> getTrendingTvShows(
-            @RequestParam(defaultValue = "1") int page) {
-        List<TvShow> tvShows = tmdbService.getTrendingTvShows(page);
-        return ResponseEntity.ok(tvShows);
+    public ResponseEntity<byte[]> getTrendingTvShows(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("tvshows:trending:" + page, accept, acceptEncoding,
+                () -> tmdbService.getTrendingTvShows(page));
     }
     
     @GetMapping("/anime")
-    public ResponseEntity<List<TvShow>> getAnime(
-            @RequestParam(defaultValue = "1") int page) {
-        List<TvShow> anime = tmdbService.getAnime(page);
-        return ResponseEntity.ok(anime);
+    public ResponseEntity<byte[]> getAnime(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("anime:popular:" + page, accept, acceptEncoding,
+                () -> tmdbService.getAnime(page));
     }
     
     @GetMapping("/anime/search")
@@ -62,16 +84,20 @@ public class TvShowController {
     }
     
     @GetMapping("/anime/trending")
-    public ResponseEntity<List<TvShow>> getTrendingAnime(
-            @RequestParam(defaultValue = "1") int page) {
-        List<TvShow> anime = tmdbService.getTrendingAnime(page);
-        return ResponseEntity.ok(anime);
+    public ResponseEntity<byte[]> getTrendingAnime(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("anime:trending:" + page, accept, acceptEncoding,
+                () -> tmdbService.getTrendingAnime(page));
     }
     
     @GetMapping("/anime/{id}")
-    public ResponseEntity<?> getAnimeById(@PathVariable Long id) {
-        return tmdbService.getDetailedAnimeInfo(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getAnimeById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.respond("anime:detail:" + id, accept, acceptEncoding,
+                () -> tmdbService.getDetailedAnimeInfo(id).orElse(null));
     }
 }
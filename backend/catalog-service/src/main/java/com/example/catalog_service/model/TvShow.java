@@ -1,6 +1,8 @@
 package com.example.catalog_service.model;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -42,6 +44,12 @@ public class TvShow {
     // Added for trailer functionality
     private String trailerUrl;
     
+    // Filled in from CatalogMetadataService, never read from TMDB
+    private List<String> genreNames;
+    private String posterUrl;
+    private String backdropUrl;
+    private String originalLanguageName;
+    
     // Add a contentType field to support SearchService
     private String contentType;
     public String getContentType() { return contentType; }
@@ -119,6 +127,24 @@ public class TvShow {
     public void setGenreIds(List<Integer> genreIds) {
         this.genreIds = genreIds;
     }
+
+    /**
+     * Detail responses list genres as {id, name} objects instead of genre_ids; take the ids
+     * from those so titles fetched by id keep their genres
+     */
+    @JsonProperty(value = "genres", access = JsonProperty.Access.WRITE_ONLY)
+    public void setGenres(List<Map<String, Object>> genres) {
+        if (genreIds != null || genres == null) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(genres.size());
+        for (Map<String, Object> genre : genres) {
+            if (genre != null && genre.get("id") instanceof Number id) {
+                ids.add(id.intValue());
+            }
+        }
+        this.genreIds = ids;
+    }
     
     public List<String> getOriginCountry() {
         return originCountry;
@@ -159,4 +185,36 @@ public class TvShow {
     public void setTrailerUrl(String trailerUrl) {
         this.trailerUrl = trailerUrl;
     }
-}
+    
+    public List<String> getGenreNames() {
+        return genreNames;
+    }
+    
+    public void setGenreNames(List<String> genreNames) {
+        this.genreNames = genreNames;
+    }
+    
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+    
+    public void setPosterUrl(String posterUrl) {
+        this.posterUrl = posterUrl;
+    }
+    
+    public String getBackdropUrl() {
+        return backdropUrl;
+    }
+    
+    public void setBackdropUrl(String backdropUrl) {
+        this.backdropUrl = backdropUrl;
+    }
+    
+    public String getOriginalLanguageName() {
+        return originalLanguageName;
+    }
+    
+    public void setOriginalLanguageName(String originalLanguageName) {
+        this.originalLanguageName = originalLanguageName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.example.catalog_service.security;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory view of the token deny list, checked on every authenticated request.
+ * Same structure as auth-service's; entries come from its token_revocations table.
+ *
+ * Three kinds of revocation are supported:
+ * - a single token, by its jti claim (logout)
+ * - every token of a session, by its sid claim (refresh token reuse)
+ * - every token of a subject issued before a cutoff (password change, account deletion)
+ *
+ * Revoked token ids sit behind a Bloom filter, so the common not-revoked case is a few
+ * bit reads with no allocation; only a filter hit goes on to the exact set. Revoked
+ * sessions and subject cutoffs are few and short-lived, so they are plain map lookups.
+ */
+public class TokenRevocationList {
+
+    private static final int HASHES = 7;
+
+    private final int expectedTokens;
+    private volatile BloomFilter filter;
+
+    // jti -> expiry of the revoked token, in epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // sid -> expiry of the session's last access token, in epoch millis
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+
+    // subject -> tokens issued before this are revoked
+    private final Map<String, Cutoff> subjectCutoffs = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(int expectedTokens) {
+        this.expectedTokens = expectedTokens;
+        this.filter = new BloomFilter(expectedTokens);
+    }
+
+    public boolean isRevoked(String tokenId, String sessionId, String subject, Date issuedAt) {
+        if (tokenId != null && filter.mightContain(tokenId) && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        if (sessionId != null && !revokedSessions.isEmpty() && revokedSessions.containsKey(sessionId)) {
+            return true;
+        }
+        if (subject != null && !subjectCutoffs.isEmpty()) {
+            Cutoff cutoff = subjectCutoffs.get(subject);
+            // JWT iat has second precision, so compare in whole seconds
+            return cutoff != null && (issuedAt == null || issuedAt.getTime() / 1000 < cutoff.notBefore / 1000);
+        }
+        return false;
+    }
+
+    public void revokeToken(String tokenId, long expiresAt) {
+        // Exact set first, so a filter hit always finds the entry
+        revokedTokens.put(tokenId, expiresAt);
+        filter.add(tokenId);
+    }
+
+    public void revokeSession(String sessionId, long expiresAt) {
+        revokedSessions.merge(sessionId, expiresAt, Math::max);
+    }
+
+    public void revokeSubject(String subject, long notBefore, long expiresAt) {
+        subjectCutoffs.merge(subject, new Cutoff(notBefore, expiresAt), (existing, added) ->
+                new Cutoff(Math.max(existing.notBefore, added.notBefore), Math.max(existing.expiresAt, added.expiresAt)));
+    }
+
+    /**
+     * Drop revocations whose tokens have expired anyway, and rebuild the Bloom filter so
+     * it does not fill up over time
+     */
+    public void purgeExpired(long now) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedSessions.values().removeIf(expiresAt -> expiresAt <= now);
+        subjectCutoffs.values().removeIf(cutoff -> cutoff.expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revokedTokens.size() * 2));
+        for (String tokenId : revokedTokens.keySet()) {
+            rebuilt.add(tokenId);
+        }
+        filter = rebuilt;
+        // Tokens revoked while rebuilding may have gone into the old filter only
+        for (String tokenId : revokedTokens.keySet()) {
+            rebuilt.add(tokenId);
+        }
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedSessions.size() + subjectCutoffs.size();
+    }
+
+    private static final class Cutoff {
+        private final long notBefore;
+        private final long expiresAt;
+
+        private Cutoff(long notBefore, long expiresAt) {
+            this.notBefore = notBefore;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Bloom filter sized for a 1% false-positive rate, using double hashing over a 64-bit
+     * FNV-1a hash of the token id
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        private BloomFilter(int expectedEntries) {
+            // m = -n ln(p) / ln(2)^2 with p = 0.01, about 9.6 bits per entry
+            long size = Math.max(1024, (long) Math.ceil(expectedEntries * 9.6));
+            this.bits = new AtomicLongArray((int) ((size + 63) / 64));
+            this.bitCount = (long) bits.length() * 64;
+        }
+
+        private void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = bits.get(word);
+                while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    current = bits.get(word);
+                }
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            // Final avalanche so both 32-bit halves are well mixed
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
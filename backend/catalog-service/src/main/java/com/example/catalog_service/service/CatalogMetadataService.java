@@ -0,0 +1,238 @@
+package com.example.catalog_service.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * TMDB reference data (genre lists, languages and image configuration), loaded once the
+ * application is ready and reloaded in the background after the refresh interval, so no
+ * request ever waits on TMDB for it; requests keep using the previous copy meanwhile. Used
+ * to enrich list results with genre names and full image URLs without any per-request
+ * upstream calls.
+ */
+@Service
+public class CatalogMetadataService {
+
+    /**
+     * TMDB's id for the Animation genre, used when the genre list has not been loaded yet
+     */
+    private static final int DEFAULT_ANIMATION_GENRE_ID = 16;
+    private static final String DEFAULT_IMAGE_BASE_URL = "https://image.tmdb.org/t/p/";
+
+    // How often to check whether a reload is due, and so how soon a failed load is retried
+    private static final long CHECK_INTERVAL_MILLIS = 60_000;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TmdbProperties tmdbProperties;
+
+    @Value("${catalog.metadata.refresh-interval:86400000}")
+    private long refreshIntervalMillis;
+
+    @Value("${catalog.metadata.poster-size:w500}")
+    private String posterSize;
+
+    @Value("${catalog.metadata.backdrop-size:w1280}")
+    private String backdropSize;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        // Until the first load completes, build image URLs against TMDB's default base
+        snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptyMap(), DEFAULT_IMAGE_BASE_URL + posterSize, DEFAULT_IMAGE_BASE_URL + backdropSize, 0);
+    }
+
+    /**
+     * First load, after startup so the service does not wait on TMDB to come up either
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refreshIfDue();
+    }
+
+    @Scheduled(fixedDelay = CHECK_INTERVAL_MILLIS, initialDelay = CHECK_INTERVAL_MILLIS)
+    public void refreshIfDue() {
+        // The startup load may still be running when the first check fires
+        if (System.currentTimeMillis() < snapshot.refreshAt || !refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            Snapshot current = snapshot;
+            if (System.currentTimeMillis() >= current.refreshAt) {
+                snapshot = load(current);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public int getAnimationGenreId() {
+        Integer id = snapshot.tvGenreIds.get("animation");
+        return id != null ? id : DEFAULT_ANIMATION_GENRE_ID;
+    }
+
+    public List<Movie> enrichMovies(List<Movie> movies) {
+        Snapshot current = snapshot;
+        for (Movie movie : movies) {
+            movie.setGenreNames(genreNames(current.movieGenres, movie.getGenreIds()));
+            movie.setPosterUrl(imageUrl(current.posterBase, movie.getPosterPath()));
+            movie.setBackdropUrl(imageUrl(current.backdropBase, movie.getBackdropPath()));
+        }
+        return movies;
+    }
+
+    public List<TvShow> enrichTvShows(List<TvShow> tvShows) {
+        Snapshot current = snapshot;
+        for (TvShow tvShow : tvShows) {
+            tvShow.setGenreNames(genreNames(current.tvGenres, tvShow.getGenreIds()));
+            tvShow.setPosterUrl(imageUrl(current.posterBase, tvShow.getPosterPath()));
+            tvShow.setBackdropUrl(imageUrl(current.backdropBase, tvShow.getBackdropPath()));
+            if (tvShow.getOriginalLanguage() != null) {
+                tvShow.setOriginalLanguageName(current.languages.get(tvShow.getOriginalLanguage()));
+            }
+        }
+        return tvShows;
+    }
+
+    private Snapshot load(Snapshot previous) {
+        try {
+            Map<Integer, String> movieGenres = new HashMap<>();
+            Map<Integer, String> tvGenres = new HashMap<>();
+            Map<String, Integer> tvGenreIds = new HashMap<>();
+            readGenres(fetch("/genre/movie/list"), movieGenres, null);
+            readGenres(fetch("/genre/tv/list"), tvGenres, tvGenreIds);
+
+            Map<String, String> languages = new HashMap<>();
+            JsonNode languageList = fetch("/configuration/languages");
+            if (languageList != null) {
+                for (JsonNode language : languageList) {
+                    languages.put(language.path("iso_639_1").asText(), language.path("english_name").asText());
+                }
+            }
+
+            String posterBase = DEFAULT_IMAGE_BASE_URL + posterSize;
+            String backdropBase = DEFAULT_IMAGE_BASE_URL + backdropSize;
+            JsonNode configuration = fetch("/configuration");
+            if (configuration != null) {
+                JsonNode images = configuration.path("images");
+                String baseUrl = images.path("secure_base_url").asText(DEFAULT_IMAGE_BASE_URL);
+                posterBase = baseUrl + pickSize(images.path("poster_sizes"), posterSize);
+                backdropBase = baseUrl + pickSize(images.path("backdrop_sizes"), backdropSize);
+            }
+
+            return new Snapshot(movieGenres, tvGenres, tvGenreIds, languages, posterBase, backdropBase,
+                    System.currentTimeMillis() + refreshIntervalMillis);
+        } catch (Exception e) {
+            e.printStackTrace();
+            // Keep serving what we have and try again shortly
+            return previous.retryAt(System.currentTimeMillis() + CHECK_INTERVAL_MILLIS);
+        }
+    }
+
+    private JsonNode fetch(String path) {
+        String url = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + path)
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .build()
+            .toUriString();
+        return restTemplate.getForObject(url, JsonNode.class);
+    }
+
+    private static void readGenres(JsonNode response, Map<Integer, String> names, Map<String, Integer> ids) {
+        if (response == null) {
+            return;
+        }
+        for (JsonNode genre : response.path("genres")) {
+            int id = genre.path("id").asInt();
+            String name = genre.path("name").asText();
+            names.put(id, name);
+            if (ids != null) {
+                ids.put(name.toLowerCase(), id);
+            }
+        }
+    }
+
+    /**
+     * Use the configured size if TMDB offers it, otherwise fall back to the original image
+     */
+    private static String pickSize(JsonNode sizes, String preferred) {
+        for (JsonNode size : sizes) {
+            if (preferred.equals(size.asText())) {
+                return preferred;
+            }
+        }
+        return sizes.isEmpty() ? preferred : "original";
+    }
+
+    private static List<String> genreNames(Map<Integer, String> genres, List<Integer> genreIds) {
+        if (genreIds == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(genreIds.size());
+        for (Integer genreId : genreIds) {
+            String name = genres.get(genreId);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static String imageUrl(String base, String path) {
+        return path == null || path.isEmpty() ? null : base + path;
+    }
+
+    /**
+     * Immutable set of reference data, swapped as a whole on refresh
+     */
+    private static final class Snapshot {
+        private final Map<Integer, String> movieGenres;
+        private final Map<Integer, String> tvGenres;
+        private final Map<String, Integer> tvGenreIds;
+        private final Map<String, String> languages;
+        private final String posterBase;
+        private final String backdropBase;
+        private final long refreshAt;
+
+        private Snapshot(Map<Integer, String> movieGenres, Map<Integer, String> tvGenres,
+                         Map<String, Integer> tvGenreIds, Map<String, String> languages,
+                         String posterBase, String backdropBase, long refreshAt) {
+            this.movieGenres = movieGenres;
+            this.tvGenres = tvGenres;
+            this.tvGenreIds = tvGenreIds;
+            this.languages = languages;
+            this.posterBase = posterBase;
+            this.backdropBase = backdropBase;
+            this.refreshAt = refreshAt;
+        }
+
+        private Snapshot retryAt(long refreshAt) {
+            return new Snapshot(movieGenres, tvGenres, tvGenreIds, languages, posterBase, backdropBase, refreshAt);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.catalog_service.cache.CompactTitle;
+import com.example.catalog_service.cache.TitleSummaryCache;
 import com.example.catalog_service.config.TmdbProperties;
 import com.example.catalog_service.model.DetailedMovie;
 import com.example.catalog_service.model.DetailedTvShow;
@@ -33,9 +35,21 @@ public class TmdbService {
     @Autowired
     private TmdbProperties tmdbProperties;
     
+    @Autowired
+    private TitleSummaryCache titleCache;
+    
+    @Autowired
+    private CatalogMetadataService metadata;
+    
     private final ExecutorService executorService = Executors.newFixedThreadPool(10);
     
     public List<Movie> getPopularMovies(int page) {
+        String cacheKey = "movies:popular:" + page;
+        List<Movie> cached = titleCache.getMoviePage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichMovies(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/movie/popular")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -51,7 +65,8 @@ public class TmdbService {
                 for (Movie movie : movies) {
                     fetchAndSetTrailerUrl(movie);
                 }
-                return movies;
+                titleCache.putMoviePage(cacheKey, movies);
+                return metadata.enrichMovies(movies);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -79,6 +94,23 @@ public class TmdbService {
         }
     }
     
+    /**
+     * Get the list-view summary of a movie, from the title store when the movie has been
+     * fetched before and from TMDB otherwise
+     */
+    public Optional<Movie> getMovieSummary(Long movieId) {
+        Movie movie = titleCache.findMovie(movieId);
+        if (movie == null) {
+            movie = getMovieDetails(movieId).orElse(null);
+            if (movie == null) {
+                return Optional.empty();
+            }
+            titleCache.putMovie(movie);
+        }
+        metadata.enrichMovies(List.of(movie));
+        return Optional.of(movie);
+    }
+    
     /**
      * Get comprehensive details about a movie including credits and similar movies
      */
@@ -181,6 +213,14 @@ public class TmdbService {
             return;
         }
         
+        // Reuse the trailer resolved the last time this movie showed up in a list; titles
+        // stored without one are looked up again, since trailers are often added later
+        CompactTitle known = titleCache.find(CompactTitle.MOVIE, movie.getId());
+        if (known != null && known.getTrailerUrl() != null) {
+            movie.setTrailerUrl(known.getTrailerUrl());
+            return;
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/movie/" + movie.getId() + "/videos")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -246,12 +286,18 @@ public class TmdbService {
      * Get popular TV shows
      */
     public List<TvShow> getPopularTvShows(int page) {
+        String cacheKey = "tvshows:popular:" + page;
+        List<TvShow> cached = titleCache.getTvShowPage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichTvShows(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/discover/tv")
             .queryParam("api_key", tmdbProperties.getApiKey())
             .queryParam("sort_by", "popularity.desc")
             .queryParam("first_air_date.gte", "2025-01-01")
-            .queryParam("without_genres", "16") // Exclude animation genre
+            .queryParam("without_genres", metadata.getAnimationGenreId()) // Exclude animation genre
             .queryParam("page", page)
             .build()
             .toUriString();
@@ -264,7 +310,8 @@ public class TmdbService {
                 for (TvShow tvShow : tvShows) {
                     fetchAndSetTvTrailerUrl(tvShow);
                 }
-                return tvShows;
+                titleCache.putTvShowPage(cacheKey, tvShows);
+                return metadata.enrichTvShows(tvShows);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -277,6 +324,12 @@ public class TmdbService {
      * Get trending TV shows
      */
     public List<TvShow> getTrendingTvShows(int page) {
+        String cacheKey = "tvshows:trending:" + page;
+        List<TvShow> cached = titleCache.getTvShowPage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichTvShows(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/trending/tv/week")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -292,7 +345,8 @@ public class TmdbService {
                 for (TvShow tvShow : tvShows) {
                     fetchAndSetTvTrailerUrl(tvShow);
                 }
-                return tvShows;
+                titleCache.putTvShowPage(cacheKey, tvShows);
+                return metadata.enrichTvShows(tvShows);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -305,6 +359,12 @@ public class TmdbService {
      * Search for TV shows
      */
     public List<TvShow> searchTvShows(String query, int page) {
+        String cacheKey = "tvshows:search:" + page + ":" + query;
+        List<TvShow> cached = titleCache.getTvShowPage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichTvShows(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/search/tv")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -316,12 +376,13 @@ public class TmdbService {
         try {
             TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
             if (response != null && response.getResults() != null) {
+                int animationGenreId = metadata.getAnimationGenreId();
                 List<TvShow> tvShows = response.getResults().stream()
                     .filter(tvShow -> {
                         List<Integer> genres = tvShow.getGenreIds();
                         List<String> origin = tvShow.getOriginCountry();
                         // Filter out only if it's both animated AND from Japan
-                        boolean isAnime = (genres != null && genres.contains(16)) &&
+                        boolean isAnime = (genres != null && genres.contains(animationGenreId)) &&
                                         (origin != null && origin.contains("JP"));
                         return !isAnime;
                     })
@@ -329,7 +390,8 @@ public class TmdbService {
                 for (TvShow tvShow : tvShows) {
                     fetchAndSetTvTrailerUrl(tvShow);
                 }
-                return tvShows;
+                titleCache.putTvShowPage(cacheKey, tvShows);
+                return metadata.enrichTvShows(tvShows);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -406,6 +468,37 @@ public class TmdbService {
         }
     }
     
+    /**
+     * Get the list-view summary of a TV show, from the title store when the show has been
+     * fetched before and from TMDB otherwise
+     */
+    public Optional<TvShow> getTvShowSummary(Long tvShowId) {
+        TvShow tvShow = titleCache.findTvShow(tvShowId);
+        if (tvShow != null) {
+            metadata.enrichTvShows(List.of(tvShow));
+            return Optional.of(tvShow);
+        }
+        
+        String url = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + "/tv/" + tvShowId)
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .build()
+            .toUriString();
+            
+        try {
+            tvShow = restTemplate.getForObject(url, TvShow.class);
+            if (tvShow != null) {
+                fetchAndSetTvTrailerUrl(tvShow);
+                titleCache.putTvShow(tvShow);
+                metadata.enrichTvShows(List.of(tvShow));
+            }
+            return Optional.ofNullable(tvShow);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+    
     /**
      * Fetch and set the trailer URL for a TV show
      */
@@ -414,6 +507,14 @@ public class TmdbService {
             return;
         }
         
+        // Reuse the trailer resolved the last time this show showed up in a list; titles
+        // stored without one are looked up again, since trailers are often added later
+        CompactTitle known = titleCache.find(CompactTitle.TV_SHOW, tvShow.getId());
+        if (known != null && known.getTrailerUrl() != null) {
+            tvShow.setTrailerUrl(known.getTrailerUrl());
+            return;
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/tv/" + tvShow.getId() + "/videos")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -481,11 +582,17 @@ public class TmdbService {
      * Uses TV show endpoints with filtering for anime content
      */
     public List<TvShow> getAnime(int page) {
+        String cacheKey = "anime:popular:" + page;
+        List<TvShow> cached = titleCache.getTvShowPage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichTvShows(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/discover/tv")
             .queryParam("api_key", tmdbProperties.getApiKey())
             .queryParam("with_original_language", "ja") // Japanese content
-            .queryParam("with_genres", "16") // Animation genre
+            .queryParam("with_genres", metadata.getAnimationGenreId()) // Animation genre
             .queryParam("sort_by", "popularity.desc") // Most popular (trending)
             .queryParam("vote_count.gte", 100) // Only shows with enough votes
             .queryParam("first_air_date.gte", "2023-01-01") // Only recent shows
@@ -500,7 +607,8 @@ public class TmdbService {
                 for (TvShow anime : animeShows) {
                     fetchAndSetTvTrailerUrl(anime);
                 }
-                return animeShows;
+                titleCache.putTvShowPage(cacheKey, animeShows);
+                return metadata.enrichTvShows(animeShows);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -513,6 +621,12 @@ public class TmdbService {
      * Search for anime
      */
     public List<TvShow> searchAnime(String query, int page) {
+        String cacheKey = "anime:search:" + page + ":" + query;
+        List<TvShow> cached = titleCache.getTvShowPage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichTvShows(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/search/tv")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -524,14 +638,14 @@ public class TmdbService {
         try {
             TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
             if (response != null && response.getResults() != null) {
-
+                int animationGenreId = metadata.getAnimationGenreId();
                 List<TvShow> animeShows = response.getResults().stream()
                 .filter(tvShow -> {
                     List<Integer> genres = tvShow.getGenreIds();
                     List<String> origin = tvShow.getOriginCountry();
                     String lang = tvShow.getOriginalLanguage();
 
-                    boolean isAnimated = genres != null && genres.contains(16);
+                    boolean isAnimated = genres != null && genres.contains(animationGenreId);
                     boolean isJapaneseOrigin = (origin != null && origin.contains("JP")) || "ja".equalsIgnoreCase(lang);
 
                     return isAnimated && isJapaneseOrigin;
@@ -541,7 +655,8 @@ public class TmdbService {
                 for (TvShow anime : animeShows) {
                     fetchAndSetTvTrailerUrl(anime);
                 }
-                return animeShows;
+                titleCache.putTvShowPage(cacheKey, animeShows);
+                return metadata.enrichTvShows(animeShows);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -554,6 +669,12 @@ public class TmdbService {
      * Get trending anime
      */
     public List<TvShow> getTrendingAnime(int page) {
+        String cacheKey = "anime:trending:" + page;
+        List<TvShow> cached = titleCache.getTvShowPage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichTvShows(cached);
+        }
+        
         // First get trending TV shows
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/trending/tv/week")
@@ -566,15 +687,17 @@ public class TmdbService {
             TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
             if (response != null && response.getResults() != null) {
                 // Filter to only include Japanese animation
+                int animationGenreId = metadata.getAnimationGenreId();
                 List<TvShow> trendingAnime = response.getResults().stream()
                     .filter(show -> "ja".equals(show.getOriginalLanguage()) && 
-                                   (show.getGenreIds() != null && show.getGenreIds().contains(16)))
+                                   (show.getGenreIds() != null && show.getGenreIds().contains(animationGenreId)))
                     .toList();
                 
                 for (TvShow anime : trendingAnime) {
                     fetchAndSetTvTrailerUrl(anime);
                 }
-                return trendingAnime;
+                titleCache.putTvShowPage(cacheKey, trendingAnime);
+                return metadata.enrichTvShows(trendingAnime);
             }
             return Collections.emptyList();
         } catch (Exception e) {
@@ -593,8 +716,9 @@ public class TmdbService {
         if (tvShowDetail.isPresent()) {
             DetailedTvShow show = tvShowDetail.get();
             boolean isJapanese = "ja".equals(show.getOriginalLanguage());
+            int animationGenreId = metadata.getAnimationGenreId();
             boolean isAnimation = show.getGenres() != null && 
-                                 show.getGenres().stream().anyMatch(genre -> genre.getId() == 16);
+                                 show.getGenres().stream().anyMatch(genre -> genre.getId() == animationGenreId);
                                  
             if (isJapanese && isAnimation) {
                 return tvShowDetail;
@@ -608,6 +732,12 @@ public class TmdbService {
      * Search for movies
      */
     public List<Movie> searchMovies(String query, int page) {
+        String cacheKey = "movies:search:" + page + ":" + query;
+        List<Movie> cached = titleCache.getMoviePage(cacheKey);
+        if (cached != null) {
+            return metadata.enrichMovies(cached);
+        }
+        
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/search/movie")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -627,7 +757,8 @@ public class TmdbService {
                 // Wait for all trailer fetching to complete
                 CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
                 
-                return response.getResults();
+                titleCache.putMoviePage(cacheKey, response.getResults());
+                return metadata.enrichMovies(response.getResults());
             }
             return Collections.emptyList();
         } catch (Exception e) {
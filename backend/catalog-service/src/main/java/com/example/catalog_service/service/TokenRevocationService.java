@@ -0,0 +1,85 @@
+package com.example.catalog_service.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.catalog_service.security.TokenRevocationList;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-only replica of auth-service's token deny list. The token_revocations table is
+ * owned by auth-service, so it is read here with plain JDBC rather than mapped as an
+ * entity, and polled for new rows by createdAt.
+ */
+@Service
+public class TokenRevocationService {
+
+    // Re-read this far back on refresh, in case rows commit out of createdAt order
+    private static final long REFRESH_OVERLAP_MILLIS = 60_000;
+
+    // Refresh token family an access token was issued under, set by auth-service
+    private static final String SESSION_CLAIM = "sid";
+
+    private static final String SELECT_REVOCATIONS =
+            "SELECT token_id, session_id, subject, not_before, expires_at, created_at FROM token_revocations " +
+            "WHERE created_at > ? AND expires_at > ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    private TokenRevocationList revocations;
+    private volatile long lastSeen;
+
+    @PostConstruct
+    public void init() {
+        revocations = new TokenRevocationList(expectedTokens);
+        // Don't hold up startup if auth-service hasn't created the table yet
+        refresh();
+    }
+
+    public boolean isRevoked(Claims claims) {
+        return revocations.isRevoked(claims.getId(), claims.get(SESSION_CLAIM, String.class),
+                claims.getSubject(), claims.getIssuedAt());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:30000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        try {
+            long since = lastSeen == 0 ? 0 : lastSeen - REFRESH_OVERLAP_MILLIS;
+            jdbcTemplate.query(SELECT_REVOCATIONS, this::apply, since, now);
+            revocations.purgeExpired(now);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void apply(ResultSet row) throws SQLException {
+        String tokenId = row.getString("token_id");
+        String sessionId = row.getString("session_id");
+        String subject = row.getString("subject");
+        long notBefore = row.getLong("not_before");
+        boolean hasNotBefore = !row.wasNull();
+        long expiresAt = row.getLong("expires_at");
+
+        if (tokenId != null) {
+            revocations.revokeToken(tokenId, expiresAt);
+        } else if (sessionId != null) {
+            revocations.revokeSession(sessionId, expiresAt);
+        } else if (subject != null && hasNotBefore) {
+            revocations.revokeSubject(subject, notBefore, expiresAt);
+        }
+        lastSeen = Math.max(lastSeen, row.getLong("created_at"));
+    }
+}
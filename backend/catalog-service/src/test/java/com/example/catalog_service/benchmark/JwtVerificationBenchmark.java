@@ -0,0 +1,89 @@
+package com.example.catalog_service.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.function.Predicate;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.catalog_service.config.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Compares per-request JWT handling in JwtAuthenticationFilter before and after the
+ * verified-claims cache. The old path built a parser and verified the signature three
+ * times per request (extractUsername, then validateToken's username and expiry checks);
+ * the new path verifies once per token and serves repeat requests from the cache.
+ *
+ * Run with: java -cp target/classes:target/test-classes:<deps>
+ *   com.example.catalog_service.benchmark.JwtVerificationBenchmark
+ */
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-long-enough-for-hs256-signing";
+    private static final int SESSIONS = 1_000;
+    // The old path is slow enough that it gets far fewer rounds
+    private static final int LEGACY_ROUNDS = 2_000;
+    private static final int UNCACHED_ROUNDS = 100_000;
+    private static final int CACHED_ROUNDS = 1_000_000;
+
+    public static void main(String[] args) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        String[] tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            tokens[i] = Jwts.builder()
+                    .setSubject("user" + i)
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                    .signWith(key, SignatureAlgorithm.HS256)
+                    .compact();
+        }
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "maxCachedTokens", 10_000);
+        jwtUtil.init();
+
+        System.out.printf("%-34s %12s%n", "path", "us/request");
+        System.out.printf("%-34s %12.2f%n", "before: 3 parses, new parser each",
+                measure(tokens, LEGACY_ROUNDS, token -> legacyAuthenticate(key, token)));
+        JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+        System.out.printf("%-34s %12.2f%n", "single parse, shared parser",
+                measure(tokens, UNCACHED_ROUNDS, token -> parser.parseClaimsJws(token).getBody().getSubject() != null));
+        System.out.printf("%-34s %12.2f%n", "after: single parse, cached",
+                measure(tokens, CACHED_ROUNDS, token -> jwtUtil.verify(token).getSubject() != null));
+    }
+
+    private static double measure(String[] tokens, int rounds, Predicate<String> authenticate) {
+        long sink = 0;
+        for (int i = 0; i < rounds / 5; i++) {
+            sink += authenticate.test(tokens[i % tokens.length]) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            sink += authenticate.test(tokens[i % tokens.length]) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed / 1000.0 / rounds;
+    }
+
+    // The filter's previous work per request
+    private static boolean legacyAuthenticate(Key key, String token) {
+        String username = parse(key, token).getSubject();
+        return parse(key, token).getSubject().equals(username)
+                && !parse(key, token).getExpiration().before(new Date());
+    }
+
+    private static Claims parse(Key key, String token) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.catalog_service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.Movie;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares payload size and encode/decode time of JSON, CBOR and Smile for representative
+ * catalog responses (a popular page and full detail views).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.catalog_service.benchmark.PayloadEncodingBenchmark
+ */
+public class PayloadEncodingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+
+        List<Movie> popularPage = samplePopularPage();
+        DetailedMovie detailedMovie = sampleDetailedMovie();
+        DetailedTvShow detailedTvShow = sampleDetailedTvShow();
+
+        JavaType movieListType = json.getTypeFactory().constructCollectionType(List.class, Movie.class);
+        JavaType detailedMovieType = json.constructType(DetailedMovie.class);
+        JavaType detailedTvShowType = json.constructType(DetailedTvShow.class);
+
+        System.out.printf("%-22s %-6s %9s %12s %12s%n", "payload", "format", "bytes", "encode(us)", "decode(us)");
+        for (String format : new String[] {"json", "cbor", "smile"}) {
+            ObjectMapper mapper = format.equals("json") ? json : format.equals("cbor") ? cbor : smile;
+            run("popular page (20)", format, mapper, popularPage, movieListType);
+            run("detailed movie", format, mapper, detailedMovie, detailedMovieType);
+            run("detailed tv show", format, mapper, detailedTvShow, detailedTvShowType);
+        }
+    }
+
+    private static void run(String name, String format, ObjectMapper mapper, Object value, JavaType type)
+            throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(value);
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(value).length;
+            sink += mapper.readValue(encoded, type).hashCode();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(value).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += mapper.readValue(encoded, type).hashCode();
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        System.out.printf("%-22s %-6s %9d %12.2f %12.2f%s%n", name, format, encoded.length,
+                encodeNanos / 1000.0 / MEASURED_ROUNDS, decodeNanos / 1000.0 / MEASURED_ROUNDS,
+                sink == 42 ? " " : "");
+    }
+
+    private static List<Movie> samplePopularPage() {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Movie movie = new Movie();
+            movie.setId(550L + i);
+            movie.setTitle("Sample Movie Title " + i);
+            movie.setOverview("A representative overview sentence that is roughly as long as the ones TMDB "
+                    + "returns for popular titles, describing the plot in two or three lines of text. " + i);
+            movie.setPosterPath("/pB8BM7pdSp6B6Ih7QZ4DrQ3PmJK" + i + ".jpg");
+            movie.setBackdropPath("/hZkgoQYus5vegHoetLkCJzb17zJ" + i + ".jpg");
+            movie.setReleaseDate("2025-03-1" + (i % 10));
+            movie.setVoteAverage(7.0 + (i % 30) / 10.0);
+            movie.setVoteCount(1200 + i * 37);
+            movie.setGenreIds(List.of(28, 12, 878));
+            movie.setTrailerUrl("https://www.youtube.com/watch?v=dQw4w9WgXc" + (i % 10));
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private static DetailedMovie sampleDetailedMovie() {
+        DetailedMovie movie = new DetailedMovie();
+        movie.setId(550L);
+        movie.setTitle("Sample Movie Title");
+        movie.setOverview(samplePopularPage().get(0).getOverview());
+        movie.setTagline("Mischief. Mayhem. Soap.");
+        movie.setStatus("Released");
+        movie.setPosterPath("/pB8BM7pdSp6B6Ih7QZ4DrQ3PmJK.jpg");
+        movie.setBackdropPath("/hZkgoQYus5vegHoetLkCJzb17zJ.jpg");
+        movie.setReleaseDate("1999-10-15");
+        movie.setVoteAverage(8.4);
+        movie.setVoteCount(27000);
+        movie.setRuntime(139);
+        movie.setBudget(63_000_000L);
+        movie.setRevenue(100_853_753L);
+
+        List<DetailedMovie.Cast> cast = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            DetailedMovie.Cast member = new DetailedMovie.Cast();
+            member.setId(819 + i);
+            member.setName("Cast Member " + i);
+            member.setCharacter("Character " + i);
+            member.setProfilePath("/8bVrbA4Mn0N5WZJbjzRkhTqoX2c" + i + ".jpg");
+            member.setImdbId("nm00" + (1000 + i));
+            cast.add(member);
+        }
+        List<DetailedMovie.Crew> crew = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            DetailedMovie.Crew member = new DetailedMovie.Crew();
+            member.setId(7467 + i);
+            member.setName("Crew Member " + i);
+            member.setJob(i % 2 == 0 ? "Producer" : "Sound Designer");
+            member.setImdbId("nm01" + (1000 + i));
+            crew.add(member);
+        }
+        DetailedMovie.Credits credits = new DetailedMovie.Credits();
+        credits.setCast(cast);
+        credits.setCrew(crew);
+        movie.setCredits(credits);
+
+        List<DetailedMovie.SimilarMovie> similarMovies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            DetailedMovie.SimilarMovie similar = new DetailedMovie.SimilarMovie();
+            similar.setId(600 + i);
+            similar.setTitle("Similar Movie " + i);
+            similar.setPosterPath("/q719jXXEzOoYaps6babgKnONONX" + i + ".jpg");
+            similar.setVoteAverage(6.5 + (i % 30) / 10.0);
+            similarMovies.add(similar);
+        }
+        DetailedMovie.Similar similar = new DetailedMovie.Similar();
+        similar.setResults(similarMovies);
+        movie.setSimilar(similar);
+        movie.setTrailerUrl("https://www.youtube.com/watch?v=qtRKdVHc-cE");
+        return movie;
+    }
+
+    private static DetailedTvShow sampleDetailedTvShow() {
+        DetailedTvShow show = new DetailedTvShow();
+        show.setId(1399L);
+        show.setName("Sample Show");
+        show.setOverview(samplePopularPage().get(0).getOverview());
+        show.setPosterPath("/1XS1oqL89opfnbLl8WnZY1O1uJx.jpg");
+        show.setBackdropPath("/2OMB0ynKlyIenMJWI2Dy9IWT4c.jpg");
+        show.setFirstAirDate("2011-04-17");
+        show.setVoteAverage(8.4);
+        show.setVoteCount(23000);
+        show.setOriginCountry(List.of("US"));
+        show.setOriginalLanguage("en");
+
+        List<DetailedTvShow.Cast> cast = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            DetailedTvShow.Cast member = new DetailedTvShow.Cast();
+            member.setId(22970 + i);
+            member.setName("Cast Member " + i);
+            member.setCharacter("Character " + i);
+            member.setProfilePath("/3lZqGkVsEJiBPDTzZVwzT3uTbqr" + i + ".jpg");
+            member.setImdbId("nm02" + (1000 + i));
+            cast.add(member);
+        }
+        List<DetailedTvShow.Crew> crew = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            DetailedTvShow.Crew member = new DetailedTvShow.Crew();
+            member.setId(9813 + i);
+            member.setName("Crew Member " + i);
+            member.setJob("Executive Producer");
+            crew.add(member);
+        }
+        DetailedTvShow.Credits credits = new DetailedTvShow.Credits();
+        credits.setCast(cast);
+        credits.setCrew(crew);
+        show.setCredits(credits);
+        show.setTrailerUrl("https://www.youtube.com/watch?v=KPLWWIOCOOQ");
+        return show;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.catalog_service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.example.catalog_service.cache.CompactTitle;
+import com.example.catalog_service.cache.StringDictionary;
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+
+/**
+ * Measures retained heap per cached summary for the public Movie/TvShow DTOs versus
+ * CompactTitle, by filling a list and comparing used heap after forced GCs.
+ *
+ * Run with: java -cp target/classes:target/test-classes:<deps>
+ *   com.example.catalog_service.benchmark.SummaryFootprintBenchmark
+ */
+public class SummaryFootprintBenchmark {
+
+    private static final int ENTRIES = 200_000;
+
+    public static void main(String[] args) {
+        StringDictionary languages = new StringDictionary();
+        StringDictionary countries = new StringDictionary();
+
+        double movieDto = bytesPerEntry(SummaryFootprintBenchmark::sampleMovie);
+        double movieCompact = bytesPerEntry(i -> CompactTitle.fromMovie(sampleMovie(i), languages, countries));
+        double tvDto = bytesPerEntry(SummaryFootprintBenchmark::sampleTvShow);
+        double tvCompact = bytesPerEntry(i -> CompactTitle.fromTvShow(sampleTvShow(i), languages, countries));
+
+        System.out.printf("%-10s %14s %16s %10s%n", "type", "dto(B/entry)", "compact(B/entry)", "saving");
+        System.out.printf("%-10s %14.0f %16.0f %9.0f%%%n", "movie", movieDto, movieCompact,
+                100 * (1 - movieCompact / movieDto));
+        System.out.printf("%-10s %14.0f %16.0f %9.0f%%%n", "tv show", tvDto, tvCompact,
+                100 * (1 - tvCompact / tvDto));
+    }
+
+    private static double bytesPerEntry(IntFunction<Object> factory) {
+        long before = usedHeap();
+        List<Object> retained = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            retained.add(factory.apply(i));
+        }
+        long after = usedHeap();
+        // Keep the list reachable until after the measurement
+        if (retained.size() != ENTRIES) {
+            throw new IllegalStateException();
+        }
+        return (after - before - 16.0 - 4.0 * ENTRIES) / ENTRIES;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Strings are built per entry, as they would be when Jackson parses upstream responses
+
+    private static Movie sampleMovie(int i) {
+        Movie movie = new Movie();
+        movie.setId(100_000L + i);
+        movie.setTitle("Sample Movie Title " + i);
+        movie.setOverview("A representative overview sentence that is roughly as long as the ones TMDB "
+                + "returns for popular titles, describing the plot in two or three lines of text. " + i);
+        movie.setPosterPath("/pB8BM7pdSp6B6Ih7QZ4DrQ3" + i + ".jpg");
+        movie.setBackdropPath("/hZkgoQYus5vegHoetLkCJzb" + i + ".jpg");
+        movie.setReleaseDate(new StringBuilder("2024-05-1").append(i % 10).toString());
+        movie.setVoteAverage(5.0 + (i % 50) / 10.0);
+        movie.setVoteCount(100 + i % 5000);
+        movie.setGenreIds(new ArrayList<>(List.of(28, 12, 878)));
+        movie.setTrailerUrl("https://www.youtube.com/watch?v=dQw4w9Wg" + (i % 1000));
+        return movie;
+    }
+
+    private static TvShow sampleTvShow(int i) {
+        TvShow tvShow = new TvShow();
+        tvShow.setId(200_000L + i);
+        tvShow.setName("Sample Show " + i);
+        tvShow.setOriginalName("Sample Show Original " + i);
+        tvShow.setOverview("A representative overview sentence that is roughly as long as the ones TMDB "
+                + "returns for popular shows, describing the premise in two or three lines of text. " + i);
+        tvShow.setPosterPath("/1XS1oqL89opfnbLl8WnZY1O" + i + ".jpg");
+        tvShow.setBackdropPath("/2OMB0ynKlyIenMJWI2Dy9IW" + i + ".jpg");
+        tvShow.setFirstAirDate(new StringBuilder("2023-01-2").append(i % 10).toString());
+        tvShow.setVoteAverage(5.0 + (i % 50) / 10.0);
+        tvShow.setVoteCount(100 + i % 5000);
+        tvShow.setPopularity(100.0 + i % 997);
+        tvShow.setGenreIds(new ArrayList<>(List.of(10765, 18, 10759)));
+        tvShow.setOriginCountry(new ArrayList<>(List.of(new String(new char[] {'U', 'S'}))));
+        tvShow.setOriginalLanguage(new String(new char[] {'e', 'n'}));
+        tvShow.setTrailerUrl("https://www.youtube.com/watch?v=KPLWWIOC" + (i % 1000));
+        return tvShow;
+    }
+}
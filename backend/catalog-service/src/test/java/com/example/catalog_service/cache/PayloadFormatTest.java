@@ -0,0 +1,49 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class PayloadFormatTest {
+
+    @Test
+    void defaultsToJson() {
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader(null));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader(""));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader("not a media type;;"));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader("text/html"));
+    }
+
+    @Test
+    void picksNamedFormat() {
+        assertEquals(PayloadFormat.CBOR, PayloadFormat.fromAcceptHeader("application/cbor"));
+        assertEquals(PayloadFormat.SMILE, PayloadFormat.fromAcceptHeader("application/x-jackson-smile, */*"));
+    }
+
+    @Test
+    void higherQualityWinsOverSpecificity() {
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader("application/cbor;q=0.5, application/json"));
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader("application/cbor;q=0.2, */*;q=0.8"));
+        assertEquals(PayloadFormat.CBOR, PayloadFormat.fromAcceptHeader("application/json;q=0.5, application/cbor;q=0.9"));
+    }
+
+    @Test
+    void namedTypeWinsOverWildcardAtEqualQuality() {
+        assertEquals(PayloadFormat.CBOR, PayloadFormat.fromAcceptHeader("*/*, application/cbor"));
+    }
+
+    @Test
+    void headerOrderBreaksRemainingTies() {
+        assertEquals(PayloadFormat.SMILE, PayloadFormat.fromAcceptHeader("application/x-jackson-smile, application/cbor"));
+        assertEquals(PayloadFormat.CBOR, PayloadFormat.fromAcceptHeader("application/cbor, application/x-jackson-smile"));
+    }
+
+    @Test
+    void zeroQualityIsNotAcceptable() {
+        assertEquals(PayloadFormat.JSON, PayloadFormat.fromAcceptHeader("application/cbor;q=0"));
+        assertEquals(PayloadFormat.CBOR, PayloadFormat.fromAcceptHeader("application/json;q=0, application/cbor;q=0.1"));
+        // A refused format is not reached through a wildcard either
+        assertEquals(PayloadFormat.SMILE,
+                PayloadFormat.fromAcceptHeader("application/json;q=0, */*, application/x-jackson-smile;q=0.5"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ResponseByteCacheTest {
+
+    private final ResponseByteCache cache = new ResponseByteCache(new ObjectMapper(), 16, 60_000, 1024);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<Object> loader = () -> {
+        loads.incrementAndGet();
+        return List.of("a".repeat(2000));
+    };
+
+    @Test
+    void everyFormatIsEncodedFromOneLoad() {
+        ResponseEntity<byte[]> json = cache.respond("popular", null, null, loader);
+        ResponseEntity<byte[]> cbor = cache.respond("popular", "application/cbor", null, loader);
+        ResponseEntity<byte[]> smile = cache.respond("popular", "application/x-jackson-smile", null, loader);
+        ResponseEntity<byte[]> jsonAgain = cache.respond("popular", "application/json", null, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(PayloadFormat.JSON.getMediaType(), json.getHeaders().getContentType());
+        assertEquals(PayloadFormat.CBOR.getMediaType(), cbor.getHeaders().getContentType());
+        assertEquals(PayloadFormat.SMILE.getMediaType(), smile.getHeaders().getContentType());
+        assertArrayEquals(json.getBody(), jsonAgain.getBody());
+    }
+
+    @Test
+    void evictDropsEveryFormat() {
+        cache.respond("popular", "application/cbor", null, loader);
+        cache.evict("popular");
+        cache.respond("popular", null, null, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void gzippedCopyServedOnlyWhenAccepted() {
+        ResponseEntity<byte[]> plain = cache.respond("popular", null, "gzip;q=0", loader);
+        ResponseEntity<byte[]> gzipped = cache.respond("popular", null, "gzip", loader);
+
+        assertFalse(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getBody().length < plain.getBody().length);
+    }
+
+    @Test
+    void emptyResultsAreServedButLoadedAgain() {
+        Supplier<Object> empty = () -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+        cache.respond("trending", null, null, empty);
+        ResponseEntity<byte[]> second = cache.respond("trending", "application/cbor", null, empty);
+
+        assertEquals(2, loads.get());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+    }
+
+    @Test
+    void missingValueIsNotFound() {
+        assertEquals(HttpStatus.NOT_FOUND, cache.respond("movie:1", null, null, () -> null).getStatusCode());
+    }
+
+    @Test
+    void gzipNeedsToBeAccepted() {
+        assertFalse(ResponseByteCache.acceptsGzip(null));
+        assertFalse(ResponseByteCache.acceptsGzip(""));
+        assertFalse(ResponseByteCache.acceptsGzip("identity"));
+        assertFalse(ResponseByteCache.acceptsGzip("br, deflate"));
+    }
+
+    @Test
+    void namedGzipIsAccepted() {
+        assertTrue(ResponseByteCache.acceptsGzip("gzip"));
+        assertTrue(ResponseByteCache.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ResponseByteCache.acceptsGzip("x-gzip"));
+        assertTrue(ResponseByteCache.acceptsGzip("br;q=1.0, gzip; q=0.8"));
+    }
+
+    @Test
+    void gzipWithZeroQualityIsRefused() {
+        assertFalse(ResponseByteCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseByteCache.acceptsGzip("gzip;q=0.000, br"));
+        assertFalse(ResponseByteCache.acceptsGzip("*, gzip;q=0"));
+    }
+
+    @Test
+    void wildcardCoversUnnamedGzip() {
+        assertTrue(ResponseByteCache.acceptsGzip("*"));
+        assertTrue(ResponseByteCache.acceptsGzip("br, *;q=0.1"));
+        assertFalse(ResponseByteCache.acceptsGzip("*;q=0"));
+    }
+
+    @Test
+    void codingNamesMustMatchExactly() {
+        assertFalse(ResponseByteCache.acceptsGzip("notgzip"));
+        assertFalse(ResponseByteCache.acceptsGzip("gzip2, identity"));
+    }
+
+    @Test
+    void malformedQualityCountsAsRefusal() {
+        assertFalse(ResponseByteCache.acceptsGzip("gzip;q=high"));
+        assertFalse(ResponseByteCache.acceptsGzip("gzip;q=2"));
+    }
+}
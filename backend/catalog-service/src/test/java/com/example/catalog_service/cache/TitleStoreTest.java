@@ -0,0 +1,183 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+
+class TitleStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final StringDictionary languages = new StringDictionary();
+    private final StringDictionary countries = new StringDictionary();
+
+    @Test
+    void returnsWhatWasPut() throws IOException {
+        TitleStore store = new TitleStore(directory.toString());
+        try {
+            store.put(CompactTitle.fromMovie(movie(1), languages, countries), languages, countries);
+            store.put(CompactTitle.fromTvShow(tvShow(1), languages, countries), languages, countries);
+
+            assertMovie(1, store.get(CompactTitle.key(CompactTitle.MOVIE, 1), languages, countries));
+            TvShow tvShow = store.get(CompactTitle.key(CompactTitle.TV_SHOW, 1), languages, countries)
+                    .toTvShow(languages, countries);
+            assertEquals("Show 1", tvShow.getName());
+            assertEquals("en", tvShow.getOriginalLanguage());
+            assertEquals(List.of("US", "GB"), tvShow.getOriginCountry());
+            assertNull(store.get(CompactTitle.key(CompactTitle.MOVIE, 2), languages, countries));
+            assertEquals(2, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void replacesTitleStoredUnderSameKey() throws IOException {
+        TitleStore store = new TitleStore(directory.toString());
+        try {
+            store.put(CompactTitle.fromMovie(movie(1), languages, countries), languages, countries);
+            Movie longer = movie(1);
+            longer.setOverview("A much longer overview than the one first stored. ".repeat(20));
+            store.put(CompactTitle.fromMovie(longer, languages, countries), languages, countries);
+
+            Movie stored = store.get(CompactTitle.key(CompactTitle.MOVIE, 1), languages, countries).toMovie();
+            assertEquals(longer.getOverview(), stored.getOverview());
+            assertEquals(1, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void keepsTitlesAcrossReopen() throws IOException {
+        TitleStore store = new TitleStore(directory.toString());
+        for (int id = 1; id <= 100; id++) {
+            store.put(CompactTitle.fromMovie(movie(id), languages, countries), languages, countries);
+        }
+        store.close();
+
+        TitleStore reopened = new TitleStore(directory.toString());
+        try {
+            assertEquals(100, reopened.size());
+            for (int id = 1; id <= 100; id++) {
+                assertMovie(id, reopened.get(CompactTitle.key(CompactTitle.MOVIE, id), languages, countries));
+            }
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void findsEveryTitleAfterIndexGrows() throws IOException {
+        TitleStore store = new TitleStore(directory.toString());
+        try {
+            // Well past the initial index capacity, so it is rebuilt several times
+            for (int id = 1; id <= 5000; id++) {
+                store.put(CompactTitle.fromMovie(movie(id), languages, countries), languages, countries);
+            }
+            assertEquals(5000, store.size());
+            for (int id = 1; id <= 5000; id++) {
+                assertMovie(id, store.get(CompactTitle.key(CompactTitle.MOVIE, id), languages, countries));
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void readersSeeWholeTitlesWhileWriterPuts() throws Exception {
+        TitleStore store = new TitleStore(directory.toString());
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            for (int id = 1; id <= 200; id++) {
+                store.put(CompactTitle.fromMovie(movie(id), languages, countries), languages, countries);
+            }
+            AtomicBoolean writing = new AtomicBoolean(true);
+            List<Future<?>> results = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                results.add(readers.submit(() -> {
+                    while (writing.get()) {
+                        for (int id = 1; id <= 200; id++) {
+                            assertMovie(id, store.get(CompactTitle.key(CompactTitle.MOVIE, id), languages, countries));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Rewrites the titles being read, with growing blobs, and grows the index under them
+            for (int round = 0; round < 20; round++) {
+                for (int id = 1; id <= 200; id++) {
+                    Movie movie = movie(id);
+                    movie.setOverview(movie.getOverview() + " ".repeat(round * 10));
+                    store.put(CompactTitle.fromMovie(movie, languages, countries), languages, countries);
+                }
+                for (int id = 1; id <= 200; id++) {
+                    int extra = 1000 + round * 200 + id;
+                    store.put(CompactTitle.fromMovie(movie(extra), languages, countries), languages, countries);
+                }
+            }
+            writing.set(false);
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            readers.shutdownNow();
+            store.close();
+        }
+    }
+
+    private static void assertMovie(int id, CompactTitle title) {
+        assertNotNull(title, "movie " + id);
+        Movie movie = title.toMovie();
+        assertEquals(id, movie.getId());
+        assertEquals("Movie " + id, movie.getTitle());
+        assertEquals("Overview of movie " + id, movie.getOverview().strip());
+        assertEquals("2020-01-15", movie.getReleaseDate());
+        assertEquals(List.of(28, 12), movie.getGenreIds());
+        assertEquals("https://www.youtube.com/watch?v=" + id, movie.getTrailerUrl());
+    }
+
+    private static Movie movie(long id) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setOverview("Overview of movie " + id);
+        movie.setPosterPath("/poster" + id + ".jpg");
+        movie.setReleaseDate("2020-01-15");
+        movie.setVoteAverage(7.5);
+        movie.setVoteCount(1200);
+        movie.setGenreIds(List.of(28, 12));
+        movie.setTrailerUrl("https://www.youtube.com/watch?v=" + id);
+        return movie;
+    }
+
+    private static TvShow tvShow(long id) {
+        TvShow tvShow = new TvShow();
+        tvShow.setId(id);
+        tvShow.setName("Show " + id);
+        tvShow.setOriginalName("Show " + id);
+        tvShow.setOverview("Overview of show " + id);
+        tvShow.setFirstAirDate("2019-09-01");
+        tvShow.setGenreIds(List.of(18));
+        tvShow.setOriginalLanguage("en");
+        tvShow.setOriginCountry(List.of("US", "GB"));
+        return tvShow;
+    }
+}
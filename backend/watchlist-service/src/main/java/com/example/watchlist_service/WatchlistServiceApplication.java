@@ -2,8 +2,10 @@ package com.example.watchlist_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class WatchlistServiceApplication {
 
     public static void main(String[] args) {
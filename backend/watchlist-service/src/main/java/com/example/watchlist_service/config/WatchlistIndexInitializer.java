@@ -0,0 +1,66 @@
+package com.example.watchlist_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Makes sure the unique (username, item) indexes the watchlist upserts rely on exist, and
+ * that every entry has the updatedAt that keyset pagination orders by.
+ * Hibernate cannot create them while duplicate entries from before they were declared are
+ * still present, so those are removed first, keeping the most recently updated entry of each
+ * (the highest id among entries updated at the same time).
+ * Both steps are no-ops once the indexes exist.
+ *
+ * Runs while the context is starting, so the web server does not take requests until the
+ * indexes are there; taking the EntityManagerFactory makes it run after Hibernate has
+ * created or updated the tables.
+ */
+@Component
+public class WatchlistIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchlistIndexInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WatchlistIndexInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void ensureIndexes() {
+        backfillUpdatedAt("movie_watchlist");
+        backfillUpdatedAt("tv_show_watchlist");
+        ensureUniqueIndex("movie_watchlist", "movie_id", "uk_movie_watchlist_username_movie_id");
+        ensureUniqueIndex("tv_show_watchlist", "tv_show_id", "uk_tv_show_watchlist_username_tv_show_id");
+    }
+
+    private void backfillUpdatedAt(String table) {
+        int updated = jdbcTemplate.update(
+                "UPDATE " + table + " SET updated_at = COALESCE(created_at, 0) WHERE updated_at IS NULL");
+        if (updated > 0) {
+            logger.info("Set updated_at on {} entries in {}", updated, table);
+        }
+    }
+
+    private void ensureUniqueIndex(String table, String itemColumn, String indexName) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = ? AND indexname = ?",
+                Integer.class, table, indexName);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        // Runs after backfillUpdatedAt, so updated_at is set on every row being compared
+        int removed = jdbcTemplate.update(
+                "DELETE FROM " + table + " a USING " + table + " b " +
+                "WHERE a.username = b.username AND a." + itemColumn + " = b." + itemColumn + " " +
+                "AND (a.updated_at, a.id) < (b.updated_at, b.id)");
+        jdbcTemplate.execute(
+                "CREATE UNIQUE INDEX IF NOT EXISTS " + indexName + " ON " + table + " (username, " + itemColumn + ")");
+        logger.info("Created {} after removing {} duplicate entries", indexName, removed);
+    }
+}
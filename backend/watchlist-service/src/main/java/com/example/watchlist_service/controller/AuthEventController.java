@@ -0,0 +1,45 @@
+package com.example.watchlist_service.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.watchlist_service.dto.AuthEventMessage;
+import com.example.watchlist_service.service.AuthEventService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Receives batches of auth events from the auth service's outbox relay. Not for clients.
+ */
+@RestController
+@RequestMapping("/internal/auth-events")
+public class AuthEventController {
+
+    private final AuthEventService authEventService;
+    private final ObjectMapper objectMapper;
+
+    public AuthEventController(AuthEventService authEventService, ObjectMapper objectMapper) {
+        this.authEventService = authEventService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> receiveEvents(
+            @RequestBody String body,
+            @RequestHeader(value = "X-Auth-Signature", required = false) String signature) throws Exception {
+        // Verified against the raw body, before it is parsed
+        if (!authEventService.isSignatureValid(body, signature)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<AuthEventMessage> events = objectMapper.readValue(body, new TypeReference<List<AuthEventMessage>>() {});
+        return ResponseEntity.ok(Map.of("applied", authEventService.apply(events)));
+    }
+}
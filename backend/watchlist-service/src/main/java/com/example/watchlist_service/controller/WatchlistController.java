@@ -13,11 +13,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.watchlist_service.dto.WatchlistBatchRequest;
+import com.example.watchlist_service.dto.WatchlistBatchResult;
+import com.example.watchlist_service.dto.WatchlistPage;
 import com.example.watchlist_service.model.MovieWatchlist;
 import com.example.watchlist_service.model.TvShowWatchlist;
 import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.service.WatchlistBatchService;
 import com.example.watchlist_service.service.WatchlistService;
 
 @RestController
@@ -25,16 +30,31 @@ import com.example.watchlist_service.service.WatchlistService;
 @CrossOrigin
 public class WatchlistController {
 
+    // Present on every page but the last; pass it back as ?cursor= for the next one
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final WatchlistService watchlistService;
+    private final WatchlistBatchService watchlistBatchService;
 
-    public WatchlistController(WatchlistService watchlistService) {
+    public WatchlistController(WatchlistService watchlistService, WatchlistBatchService watchlistBatchService) {
         this.watchlistService = watchlistService;
+        this.watchlistBatchService = watchlistBatchService;
     }
 
     // Movie watchlist endpoints
     @GetMapping("/movies/{username}")
-    public ResponseEntity<List<MovieWatchlist>> getMovieWatchlist(@PathVariable String username) {
-        return ResponseEntity.ok(watchlistService.getMovieWatchlistForUser(username));
+    public ResponseEntity<List<MovieWatchlist>> getMovieWatchlist(
+            @PathVariable String username,
+            @RequestParam(required = false) WatchStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "desc") String order) {
+        try {
+            return pageResponse(watchlistService.getMovieWatchlistPage(
+                    username, status, cursor, limit, "asc".equalsIgnoreCase(order)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/movies")
@@ -68,8 +88,18 @@ public class WatchlistController {
 
     // TV Show watchlist endpoints
     @GetMapping("/tvshows/{username}")
-    public ResponseEntity<List<TvShowWatchlist>> getTvShowWatchlist(@PathVariable String username) {
-        return ResponseEntity.ok(watchlistService.getTvShowWatchlistForUser(username));
+    public ResponseEntity<List<TvShowWatchlist>> getTvShowWatchlist(
+            @PathVariable String username,
+            @RequestParam(required = false) WatchStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "desc") String order) {
+        try {
+            return pageResponse(watchlistService.getTvShowWatchlistPage(
+                    username, status, cursor, limit, "asc".equalsIgnoreCase(order)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/tvshows")
@@ -104,4 +134,22 @@ public class WatchlistController {
         watchlistService.removeTvShowFromWatchlist(username, tvShowId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Bulk actions: many adds, updates and removes in one request and one transaction
+    @PostMapping("/batch")
+    public ResponseEntity<List<WatchlistBatchResult>> applyBatch(@RequestBody WatchlistBatchRequest request) {
+        try {
+            return ResponseEntity.ok(watchlistBatchService.apply(request.getUsername(), request.getOperations()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static <T> ResponseEntity<List<T>> pageResponse(WatchlistPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
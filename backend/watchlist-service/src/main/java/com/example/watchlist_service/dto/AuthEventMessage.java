@@ -0,0 +1,17 @@
+package com.example.watchlist_service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An auth event as delivered by the auth service's outbox relay
+ */
+@Data
+@NoArgsConstructor
+public class AuthEventMessage {
+    private String id;
+    private String type;
+    private Long userId;
+    private String username;
+    private Long occurredAt;
+}
@@ -0,0 +1,36 @@
+package com.example.watchlist_service.dto;
+
+import java.util.List;
+
+import com.example.watchlist_service.model.WatchStatus;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of POST /api/watchlist/batch: operations on one user's watchlists, applied in order
+ */
+@Data
+@NoArgsConstructor
+public class WatchlistBatchRequest {
+
+    public enum Action { ADD, UPDATE, REMOVE }
+
+    public enum ItemType { MOVIE, TV_SHOW }
+
+    private String username;
+    private List<Operation> operations;
+
+    @Data
+    @NoArgsConstructor
+    public static class Operation {
+        private Action action;
+        private ItemType type;
+        private String itemId;
+        // Required for ADD and UPDATE
+        private WatchStatus status;
+        // TV shows only; left as they are on UPDATE when null
+        private Integer currentSeason;
+        private Integer currentEpisode;
+    }
+}
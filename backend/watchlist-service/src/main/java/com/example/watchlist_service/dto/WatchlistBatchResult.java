@@ -0,0 +1,24 @@
+package com.example.watchlist_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one operation of a batch, by its position in the request
+ */
+@Data
+@AllArgsConstructor
+public class WatchlistBatchResult {
+
+    public enum Outcome {
+        APPLIED,
+        // ADD of an entry already on the list, or REMOVE of one that is not
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    private int index;
+    private Outcome outcome;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.example.watchlist_service.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One page of a watchlist, and the cursor for the next page (null on the last one)
+ */
+@Data
+@AllArgsConstructor
+public class WatchlistPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
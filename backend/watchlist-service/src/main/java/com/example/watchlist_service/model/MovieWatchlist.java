@@ -7,13 +7,20 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "movie_watchlist")
+@Table(name = "movie_watchlist", indexes = {
+    // One entry per user and movie; also serves lookups by username alone
+    @Index(name = "uk_movie_watchlist_username_movie_id", columnList = "username, movieId", unique = true),
+    // Keyset pages, with and without a status filter
+    @Index(name = "idx_movie_watchlist_username_updated_at", columnList = "username, updatedAt, id"),
+    @Index(name = "idx_movie_watchlist_username_status_updated_at", columnList = "username, status, updatedAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,31 @@
+package com.example.watchlist_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Id of an auth event that has already been applied. The auth service redelivers a batch
+ * it did not get an acknowledgement for, so these are checked before applying anything.
+ */
+@Entity
+@Table(name = "processed_auth_events", indexes = {
+    @Index(name = "idx_processed_auth_events_processed_at", columnList = "processedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedAuthEvent {
+
+    @Id
+    @Column(length = 36)
+    private String eventId;
+
+    @Column(nullable = false)
+    private Long processedAt;
+}
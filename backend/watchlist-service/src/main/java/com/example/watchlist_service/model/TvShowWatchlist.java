@@ -6,7 +6,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tv_show_watchlist")
+@Table(name = "tv_show_watchlist", indexes = {
+    // One entry per user and show; also serves lookups by username alone
+    @Index(name = "uk_tv_show_watchlist_username_tv_show_id", columnList = "username, tvShowId", unique = true),
+    // Keyset pages, with and without a status filter
+    @Index(name = "idx_tv_show_watchlist_username_updated_at", columnList = "username, updatedAt, id"),
+    @Index(name = "idx_tv_show_watchlist_username_status_updated_at", columnList = "username, status, updatedAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,15 +1,71 @@
 package com.example.watchlist_service.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.watchlist_service.model.MovieWatchlist;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
-public interface MovieWatchlistRepository extends JpaRepository<MovieWatchlist, Long> {
-    List<MovieWatchlist> findByUsername(String username);
-    Optional<MovieWatchlist> findByUsernameAndMovieId(String username, String movieId);
+public interface MovieWatchlistRepository extends JpaRepository<MovieWatchlist, Long>,
+        JpaSpecificationExecutor<MovieWatchlist> {
+    List<MovieWatchlist> findByUsername(String username, Limit limit);
+
+    /**
+     * Load and lock (FOR UPDATE) a user's entries for these items, in id order so that
+     * concurrent callers lock them in the same order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<MovieWatchlist> findByUsernameAndMovieIdInOrderById(String username, Collection<String> movieIds);
+
+    /**
+     * Add an entry in one statement. If the user already has this movie, the existing
+     * entry is left as it is and returned; the no-op DO UPDATE is what makes RETURNING
+     * give back the existing row.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO movie_watchlist (username, movie_id, status, created_at, updated_at) " +
+            "VALUES (:username, :movieId, :status, :now, :now) " +
+            "ON CONFLICT (username, movie_id) DO UPDATE SET username = EXCLUDED.username " +
+            "RETURNING *", nativeQuery = true)
+    MovieWatchlist upsert(String username, String movieId, String status, Long now);
+
+    /**
+     * Set an entry's status in one statement, with no read first, so concurrent updates
+     * cannot overwrite each other with stale rows
+     * @return the updated entry, or empty if the user does not have this movie
+     */
+    @Transactional
+    @Query(value = "UPDATE movie_watchlist SET status = :status, updated_at = :now " +
+            "WHERE username = :username AND movie_id = :movieId RETURNING *", nativeQuery = true)
+    Optional<MovieWatchlist> updateStatus(String username, String movieId, String status, Long now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM movie_watchlist WHERE username = :username AND movie_id = :movieId",
+            nativeQuery = true)
+    int deleteByUsernameAndMovieId(String username, String movieId);
+
+    /**
+     * Delete up to limit of a user's entries created at or before the given time, each
+     * call in its own short transaction
+     * @return the number deleted; less than limit once none are left
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM movie_watchlist WHERE id IN (SELECT id FROM movie_watchlist " +
+            "WHERE username = :username AND (created_at IS NULL OR created_at <= :before) LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUsername(String username, Long before, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.watchlist_service.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.watchlist_service.model.ProcessedAuthEvent;
+
+@Repository
+public interface ProcessedAuthEventRepository extends JpaRepository<ProcessedAuthEvent, String> {
+
+    @Query("SELECT e.eventId FROM ProcessedAuthEvent e WHERE e.eventId IN :eventIds")
+    List<String> findProcessedIds(Collection<String> eventIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessedAuthEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(Long before);
+}
@@ -1,14 +1,74 @@
 package com.example.watchlist_service.repository;
 
 import com.example.watchlist_service.model.TvShowWatchlist;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TvShowWatchlistRepository extends JpaRepository<TvShowWatchlist, Long> {
-    List<TvShowWatchlist> findByUsername(String username);
-    Optional<TvShowWatchlist> findByUsernameAndTvShowId(String username, String tvShowId);
+public interface TvShowWatchlistRepository extends JpaRepository<TvShowWatchlist, Long>,
+        JpaSpecificationExecutor<TvShowWatchlist> {
+    List<TvShowWatchlist> findByUsername(String username, Limit limit);
+
+    /**
+     * Load and lock (FOR UPDATE) a user's entries for these items, in id order so that
+     * concurrent callers lock them in the same order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TvShowWatchlist> findByUsernameAndTvShowIdInOrderById(String username, Collection<String> tvShowIds);
+
+    /**
+     * Add an entry in one statement. If the user already has this show, the existing
+     * entry is left as it is and returned; the no-op DO UPDATE is what makes RETURNING
+     * give back the existing row.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO tv_show_watchlist (username, tv_show_id, current_season, current_episode, status, created_at, updated_at) " +
+            "VALUES (:username, :tvShowId, :currentSeason, :currentEpisode, :status, :now, :now) " +
+            "ON CONFLICT (username, tv_show_id) DO UPDATE SET username = EXCLUDED.username " +
+            "RETURNING *", nativeQuery = true)
+    TvShowWatchlist upsert(String username, String tvShowId, Integer currentSeason, Integer currentEpisode,
+                           String status, Long now);
+
+    /**
+     * Set an entry's status, and its season and episode where given, in one statement
+     * with no read first, so concurrent updates cannot overwrite each other with stale rows.
+     * The casts give null parameters a type for COALESCE.
+     * @return the updated entry, or empty if the user does not have this show
+     */
+    @Transactional
+    @Query(value = "UPDATE tv_show_watchlist SET status = :status, " +
+            "current_season = COALESCE(CAST(:currentSeason AS integer), current_season), " +
+            "current_episode = COALESCE(CAST(:currentEpisode AS integer), current_episode), " +
+            "updated_at = :now WHERE username = :username AND tv_show_id = :tvShowId RETURNING *", nativeQuery = true)
+    Optional<TvShowWatchlist> updateStatus(String username, String tvShowId, String status,
+                                           Integer currentSeason, Integer currentEpisode, Long now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tv_show_watchlist WHERE username = :username AND tv_show_id = :tvShowId",
+            nativeQuery = true)
+    int deleteByUsernameAndTvShowId(String username, String tvShowId);
+
+    /**
+     * Delete up to limit of a user's entries created at or before the given time, each
+     * call in its own short transaction
+     * @return the number deleted; less than limit once none are left
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tv_show_watchlist WHERE id IN (SELECT id FROM tv_show_watchlist " +
+            "WHERE username = :username AND (created_at IS NULL OR created_at <= :before) LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUsername(String username, Long before, int limit);
 }
\ No newline at end of file
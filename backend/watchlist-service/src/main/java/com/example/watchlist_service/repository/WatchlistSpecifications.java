@@ -0,0 +1,58 @@
+package com.example.watchlist_service.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.watchlist_service.model.WatchStatus;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Keyset pagination over (updatedAt, id) for the watchlist entities, which share those
+ * attribute names. Each page continues strictly after the last entry of the previous one,
+ * so it is a range scan on the (username, [status,] updatedAt, id) indexes however deep
+ * into the list it is.
+ */
+public final class WatchlistSpecifications {
+
+    private WatchlistSpecifications() {
+    }
+
+    /**
+     * @param afterUpdatedAt updatedAt of the last entry already returned, or null for the first page
+     * @param afterId id of the last entry already returned
+     */
+    public static <T> Specification<T> page(String username, WatchStatus status,
+                                            Long afterUpdatedAt, Long afterId, boolean ascending) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("username"), username));
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (afterUpdatedAt != null) {
+                if (ascending) {
+                    // The first condition is implied by the second, but gives the index a range to scan
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), afterUpdatedAt));
+                    predicates.add(cb.or(
+                            cb.greaterThan(root.get("updatedAt"), afterUpdatedAt),
+                            cb.and(cb.equal(root.get("updatedAt"), afterUpdatedAt), cb.greaterThan(root.get("id"), afterId))));
+                } else {
+                    predicates.add(cb.lessThanOrEqualTo(root.get("updatedAt"), afterUpdatedAt));
+                    predicates.add(cb.or(
+                            cb.lessThan(root.get("updatedAt"), afterUpdatedAt),
+                            cb.and(cb.equal(root.get("updatedAt"), afterUpdatedAt), cb.lessThan(root.get("id"), afterId))));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Sort sort(boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, "updatedAt").and(Sort.by(direction, "id"));
+    }
+}
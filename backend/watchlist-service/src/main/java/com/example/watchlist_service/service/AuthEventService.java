@@ -0,0 +1,123 @@
+package com.example.watchlist_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.watchlist_service.dto.AuthEventMessage;
+import com.example.watchlist_service.model.ProcessedAuthEvent;
+import com.example.watchlist_service.repository.MovieWatchlistRepository;
+import com.example.watchlist_service.repository.ProcessedAuthEventRepository;
+import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+
+/**
+ * Applies auth events delivered by the auth service's outbox relay. Delivery is at least
+ * once, so event ids already applied are skipped.
+ *
+ * A deleted account's watchlist entries are removed in fixed-size chunks, each its own
+ * transaction, so a large watchlist does not hold long locks. Only entries created up to
+ * the deletion are removed, in case the username has been registered again since.
+ */
+@Service
+public class AuthEventService {
+
+    private static final String ACCOUNT_DELETED = "ACCOUNT_DELETED";
+
+    private final MovieWatchlistRepository movieWatchlistRepository;
+    private final TvShowWatchlistRepository tvShowWatchlistRepository;
+    private final ProcessedAuthEventRepository processedAuthEventRepository;
+    private final WatchlistCache watchlistCache;
+    private final WatchlistChangeChannel watchlistChangeChannel;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${watchlist.auth-events.delete-chunk:1000}")
+    private int deleteChunk;
+
+    @Value("${watchlist.auth-events.retention:604800000}")
+    private long retentionMillis;
+
+    public AuthEventService(MovieWatchlistRepository movieWatchlistRepository,
+                            TvShowWatchlistRepository tvShowWatchlistRepository,
+                            ProcessedAuthEventRepository processedAuthEventRepository,
+                            WatchlistCache watchlistCache,
+                            WatchlistChangeChannel watchlistChangeChannel) {
+        this.movieWatchlistRepository = movieWatchlistRepository;
+        this.tvShowWatchlistRepository = tvShowWatchlistRepository;
+        this.processedAuthEventRepository = processedAuthEventRepository;
+        this.watchlistCache = watchlistCache;
+        this.watchlistChangeChannel = watchlistChangeChannel;
+    }
+
+    /**
+     * Check the relay's X-Auth-Signature header, an HMAC-SHA256 of the body with the shared
+     * JWT secret
+     */
+    public boolean isSignatureValid(String body, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, Base64.getDecoder().decode(signature));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of events applied, not counting redeliveries
+     */
+    public int apply(List<AuthEventMessage> events) {
+        List<String> ids = new ArrayList<>(events.size());
+        for (AuthEventMessage event : events) {
+            ids.add(event.getId());
+        }
+        Set<String> processed = new HashSet<>(processedAuthEventRepository.findProcessedIds(ids));
+
+        List<ProcessedAuthEvent> applied = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (AuthEventMessage event : events) {
+            if (!processed.add(event.getId())) {
+                continue;
+            }
+            if (ACCOUNT_DELETED.equals(event.getType()) && event.getUsername() != null) {
+                deleteWatchlists(event.getUsername(), event.getOccurredAt() != null ? event.getOccurredAt() : now);
+            }
+            applied.add(new ProcessedAuthEvent(event.getId(), now));
+        }
+        // Recorded last: if anything above fails, the relay retries and the deletes run again
+        processedAuthEventRepository.saveAll(applied);
+        return applied.size();
+    }
+
+    @Scheduled(fixedDelayString = "${watchlist.auth-events.purge-interval:3600000}")
+    public void purgeProcessed() {
+        processedAuthEventRepository.deleteProcessedBefore(System.currentTimeMillis() - retentionMillis);
+    }
+
+    private void deleteWatchlists(String username, long before) {
+        while (movieWatchlistRepository.deleteChunkByUsername(username, before, deleteChunk) == deleteChunk) {
+            // next chunk
+        }
+        while (tvShowWatchlistRepository.deleteChunkByUsername(username, before, deleteChunk) == deleteChunk) {
+            // next chunk
+        }
+        watchlistCache.evict(username);
+        watchlistChangeChannel.publish(username);
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.watchlist_service.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.watchlist_service.dto.WatchlistBatchRequest.Action;
+import com.example.watchlist_service.dto.WatchlistBatchRequest.ItemType;
+import com.example.watchlist_service.dto.WatchlistBatchRequest.Operation;
+import com.example.watchlist_service.dto.WatchlistBatchResult;
+import com.example.watchlist_service.dto.WatchlistBatchResult.Outcome;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.repository.MovieWatchlistRepository;
+import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+
+/**
+ * Applies a list of add/update/remove operations on one user's watchlists in a single
+ * transaction, for bulk actions in the UI.
+ *
+ * Instead of a find and a save per operation, the user's affected entries are loaded and
+ * locked (FOR UPDATE) with one query per item type, the operations are played against them
+ * in memory, and only the net changes are written: updates and deletes as one JDBC batch
+ * per statement, inserts as one multi-row statement. Rows are locked and written in id or
+ * item id order, so concurrent batches take row locks in the same order.
+ *
+ * Items that were missing can still be added by a concurrent request before the insert
+ * runs; the insert then does nothing for them. Their operations are played again against
+ * the row that request left, so results always describe what was written.
+ */
+@Service
+public class WatchlistBatchService {
+
+    // %s is a "(?, ...)" group per row; RETURNING tells which rows went in
+    private static final String MOVIE_INSERT_SQL =
+        "INSERT INTO movie_watchlist (username, movie_id, status, created_at, updated_at) VALUES %s " +
+        "ON CONFLICT (username, movie_id) DO NOTHING RETURNING movie_id";
+    private static final String MOVIE_UPDATE_SQL =
+        "UPDATE movie_watchlist SET status = ?, updated_at = ? WHERE id = ?";
+    private static final String MOVIE_DELETE_SQL =
+        "DELETE FROM movie_watchlist WHERE id = ?";
+    private static final String TV_SHOW_INSERT_SQL =
+        "INSERT INTO tv_show_watchlist (username, tv_show_id, current_season, current_episode, status, created_at, updated_at) " +
+        "VALUES %s ON CONFLICT (username, tv_show_id) DO NOTHING RETURNING tv_show_id";
+    private static final String TV_SHOW_UPDATE_SQL =
+        "UPDATE tv_show_watchlist SET current_season = ?, current_episode = ?, status = ?, updated_at = ? WHERE id = ?";
+    private static final String TV_SHOW_DELETE_SQL =
+        "DELETE FROM tv_show_watchlist WHERE id = ?";
+
+    // Attempts at the items a concurrent request keeps adding first, before giving up
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MovieWatchlistRepository movieWatchlistRepository;
+    private final TvShowWatchlistRepository tvShowWatchlistRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final WatchlistCache watchlistCache;
+    private final WatchlistChangeChannel watchlistChangeChannel;
+
+    @Value("${watchlist.batch.max-operations:500}")
+    private int maxOperations;
+
+    public WatchlistBatchService(MovieWatchlistRepository movieWatchlistRepository,
+                                 TvShowWatchlistRepository tvShowWatchlistRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 WatchlistCache watchlistCache,
+                                 WatchlistChangeChannel watchlistChangeChannel) {
+        this.movieWatchlistRepository = movieWatchlistRepository;
+        this.tvShowWatchlistRepository = tvShowWatchlistRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.watchlistCache = watchlistCache;
+        this.watchlistChangeChannel = watchlistChangeChannel;
+    }
+
+    /**
+     * @return one result per operation, in request order. Operations that are invalid or
+     *         find nothing to update are reported and skipped; the rest are still applied.
+     * @throws IllegalArgumentException if there is no username or too many operations
+     */
+    @Transactional
+    public List<WatchlistBatchResult> apply(String username, List<Operation> operations) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        if (operations == null || operations.isEmpty()) {
+            return List.of();
+        }
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("At most " + maxOperations + " operations per batch");
+        }
+
+        WatchlistBatchResult[] results = new WatchlistBatchResult[operations.size()];
+        Set<String> movieIds = itemIds(operations, ItemType.MOVIE);
+        Set<String> tvShowIds = itemIds(operations, ItemType.TV_SHOW);
+        long now = System.currentTimeMillis();
+        for (int attempt = 1; ; attempt++) {
+            Map<String, Entry> movies = loadMovies(username, movieIds);
+            Map<String, Entry> tvShows = loadTvShows(username, tvShowIds);
+            play(operations, movies, tvShows, results);
+            // ON CONFLICT waits for the request that got an item in first, so the row it
+            // left is there to lock on the next attempt
+            movieIds = writeMovies(username, movies, now);
+            tvShowIds = writeTvShows(username, tvShows, now);
+            if (movieIds.isEmpty() && tvShowIds.isEmpty()) {
+                break;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                throw new ConcurrencyFailureException("Watchlist of " + username + " kept changing during batch");
+            }
+        }
+
+        // Too many changes to write through one by one; the notification goes out on commit
+        watchlistCache.evict(username);
+        watchlistChangeChannel.publish(username);
+        return List.of(results);
+    }
+
+    /**
+     * Play the operations on the loaded items against their entries, setting their results.
+     * Operations on other items are left alone; their results are already set.
+     */
+    private static void play(List<Operation> operations, Map<String, Entry> movies,
+                             Map<String, Entry> tvShows, WatchlistBatchResult[] results) {
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            String error = validate(operation);
+            if (error != null) {
+                results[i] = new WatchlistBatchResult(i, Outcome.INVALID, error);
+                continue;
+            }
+            Map<String, Entry> entries = operation.getType() == ItemType.MOVIE ? movies : tvShows;
+            Entry entry = entries.get(operation.getItemId());
+            if (entry != null) {
+                results[i] = new WatchlistBatchResult(i, entry.apply(operation), null);
+            }
+        }
+    }
+
+    private static String validate(Operation operation) {
+        if (operation == null || operation.getAction() == null || operation.getType() == null) {
+            return "Action and type are required";
+        }
+        if (operation.getItemId() == null || operation.getItemId().isBlank()) {
+            return "Item id is required";
+        }
+        if (operation.getStatus() == null && operation.getAction() != Action.REMOVE) {
+            return "Status is required";
+        }
+        return null;
+    }
+
+    private static Set<String> itemIds(List<Operation> operations, ItemType type) {
+        Set<String> ids = new TreeSet<>();
+        for (Operation operation : operations) {
+            if (operation != null && operation.getType() == type && operation.getItemId() != null) {
+                ids.add(operation.getItemId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return an entry for each of the items, locked if it has a row; sorted by item id,
+     *         which is also the order new rows are inserted in
+     */
+    private Map<String, Entry> loadMovies(String username, Set<String> movieIds) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!movieIds.isEmpty()) {
+            for (MovieWatchlist movie : movieWatchlistRepository.findByUsernameAndMovieIdInOrderById(username, movieIds)) {
+                Entry entry = new Entry(movie.getId());
+                entry.status = movie.getStatus();
+                entries.put(movie.getMovieId(), entry);
+            }
+        }
+        for (String movieId : movieIds) {
+            entries.putIfAbsent(movieId, new Entry(null));
+        }
+        return entries;
+    }
+
+    private Map<String, Entry> loadTvShows(String username, Set<String> tvShowIds) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!tvShowIds.isEmpty()) {
+            for (TvShowWatchlist tvShow : tvShowWatchlistRepository.findByUsernameAndTvShowIdInOrderById(username, tvShowIds)) {
+                Entry entry = new Entry(tvShow.getId());
+                entry.status = tvShow.getStatus();
+                entry.currentSeason = tvShow.getCurrentSeason();
+                entry.currentEpisode = tvShow.getCurrentEpisode();
+                entries.put(tvShow.getTvShowId(), entry);
+            }
+        }
+        for (String tvShowId : tvShowIds) {
+            entries.putIfAbsent(tvShowId, new Entry(null));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the items whose insert did nothing because another request added them first
+     */
+    private Set<String> writeMovies(String username, Map<String, Entry> movies, long now) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Map.Entry<String, Entry> item : movies.entrySet()) {
+            Entry entry = item.getValue();
+            if (entry.isDeleted()) {
+                deletes.add(new Object[] { entry.id });
+            } else if (entry.isUpdated()) {
+                updates.add(new Object[] { entry.status.name(), now, entry.id });
+            } else if (entry.isInserted()) {
+                inserts.add(new Object[] { username, item.getKey(), entry.status.name(), now, now });
+            }
+        }
+        batch(MOVIE_DELETE_SQL, deletes, 0);
+        batch(MOVIE_UPDATE_SQL, updates, 2);
+        return insert(MOVIE_INSERT_SQL, inserts);
+    }
+
+    private Set<String> writeTvShows(String username, Map<String, Entry> tvShows, long now) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Map.Entry<String, Entry> item : tvShows.entrySet()) {
+            Entry entry = item.getValue();
+            if (entry.isDeleted()) {
+                deletes.add(new Object[] { entry.id });
+            } else if (entry.isUpdated()) {
+                updates.add(new Object[] { entry.currentSeason, entry.currentEpisode, entry.status.name(), now, entry.id });
+            } else if (entry.isInserted()) {
+                inserts.add(new Object[] { username, item.getKey(), entry.currentSeason, entry.currentEpisode,
+                        entry.status.name(), now, now });
+            }
+        }
+        batch(TV_SHOW_DELETE_SQL, deletes, 0);
+        batch(TV_SHOW_UPDATE_SQL, updates, 4);
+        return insert(TV_SHOW_INSERT_SQL, inserts);
+    }
+
+    /**
+     * Rows here are locked by loadMovies/loadTvShows, so every statement hits its row
+     * @param idColumn position of the row id in each argument array, to order by
+     */
+    private void batch(String sql, List<Object[]> rows, int idColumn) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        rows.sort(Comparator.comparingLong(row -> (Long) row[idColumn]));
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    /**
+     * Insert the rows, in the (item id) order they were collected in, as one statement.
+     * Not a JDBC batch: with reWriteBatchedInserts the driver reports no per-row counts.
+     * @param rows argument arrays with the item id second
+     * @return the item ids that were not inserted
+     */
+    private Set<String> insert(String sql, List<Object[]> rows) {
+        Set<String> missed = new TreeSet<>();
+        if (rows.isEmpty()) {
+            return missed;
+        }
+        String group = "(" + String.join(", ", Collections.nCopies(rows.get(0).length, "?")) + ")";
+        List<Object> args = new ArrayList<>(rows.size() * rows.get(0).length);
+        for (Object[] row : rows) {
+            missed.add((String) row[1]);
+            args.addAll(Arrays.asList(row));
+        }
+        String values = String.join(", ", Collections.nCopies(rows.size(), group));
+        missed.removeAll(jdbcTemplate.queryForList(String.format(sql, values), String.class, args.toArray()));
+        return missed;
+    }
+
+    /**
+     * One watchlist entry as the operations so far have left it
+     */
+    private static final class Entry {
+        // Row id if the entry was in the table before the batch
+        private final Long id;
+        private boolean present;
+        private boolean changed;
+        private WatchStatus status;
+        private Integer currentSeason;
+        private Integer currentEpisode;
+
+        private Entry(Long id) {
+            this.id = id;
+            this.present = id != null;
+        }
+
+        private Outcome apply(Operation operation) {
+            switch (operation.getAction()) {
+                case ADD:
+                    if (present) {
+                        return Outcome.UNCHANGED;
+                    }
+                    // Re-adding an entry removed earlier in the batch keeps its row
+                    present = true;
+                    changed = true;
+                    status = operation.getStatus();
+                    currentSeason = operation.getCurrentSeason();
+                    currentEpisode = operation.getCurrentEpisode();
+                    return Outcome.APPLIED;
+                case UPDATE:
+                    if (!present) {
+                        return Outcome.NOT_FOUND;
+                    }
+                    changed = true;
+                    status = operation.getStatus();
+                    if (operation.getCurrentSeason() != null) {
+                        currentSeason = operation.getCurrentSeason();
+                    }
+                    if (operation.getCurrentEpisode() != null) {
+                        currentEpisode = operation.getCurrentEpisode();
+                    }
+                    return Outcome.APPLIED;
+                default:
+                    if (!present) {
+                        return Outcome.UNCHANGED;
+                    }
+                    present = false;
+                    return Outcome.APPLIED;
+            }
+        }
+
+        private boolean isDeleted() {
+            return id != null && !present;
+        }
+
+        private boolean isUpdated() {
+            return id != null && present && changed;
+        }
+
+        private boolean isInserted() {
+            return id == null && present;
+        }
+    }
+}
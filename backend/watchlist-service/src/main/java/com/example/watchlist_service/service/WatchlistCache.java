@@ -0,0 +1,247 @@
+package com.example.watchlist_service.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.repository.MovieWatchlistRepository;
+import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+
+/**
+ * Bounded per-user cache of the whole watchlist, movies and TV shows together, so page
+ * reads are served from memory and the database only sees writes.
+ *
+ * WatchlistService updates cached entries in place as it writes (write-through); changes
+ * made by other replicas arrive through WatchlistChangeChannel and evict the user here.
+ * Entries also expire after a TTL, in case a notification was missed. Users with more
+ * entries than max-items are not cached; their reads keep going to the database.
+ */
+@Component
+public class WatchlistCache {
+
+    // Oldest first, as the keyset pages order them
+    private static final Comparator<MovieWatchlist> MOVIE_ORDER = Comparator
+            .comparingLong((MovieWatchlist movie) -> orZero(movie.getUpdatedAt()))
+            .thenComparingLong(movie -> orZero(movie.getId()));
+    private static final Comparator<TvShowWatchlist> TV_SHOW_ORDER = Comparator
+            .comparingLong((TvShowWatchlist tvShow) -> orZero(tvShow.getUpdatedAt()))
+            .thenComparingLong(tvShow -> orZero(tvShow.getId()));
+
+    private final MovieWatchlistRepository movieWatchlistRepository;
+    private final TvShowWatchlistRepository tvShowWatchlistRepository;
+
+    @Value("${watchlist.cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${watchlist.cache.max-items:2000}")
+    private int maxItems;
+
+    @Value("${watchlist.cache.ttl:300000}")
+    private long ttlMillis;
+
+    // A load in progress holds a pending marker here. Write-throughs and evictions remove
+    // it, and the load only publishes its result if its own marker is still in place, so a
+    // load that raced with a change to the same user is not cached
+    private final Map<String, CachedWatchlist> byUsername = new ConcurrentHashMap<>();
+
+    public WatchlistCache(MovieWatchlistRepository movieWatchlistRepository,
+                          TvShowWatchlistRepository tvShowWatchlistRepository) {
+        this.movieWatchlistRepository = movieWatchlistRepository;
+        this.tvShowWatchlistRepository = tvShowWatchlistRepository;
+    }
+
+    /**
+     * @return the user's movies, oldest first, or null if the user has too many to cache
+     */
+    public List<MovieWatchlist> getMovies(String username) {
+        CachedWatchlist cached = lookup(username);
+        return cached.oversized ? null : cached.movies;
+    }
+
+    /**
+     * @return the user's TV shows, oldest first, or null if the user has too many to cache
+     */
+    public List<TvShowWatchlist> getTvShows(String username) {
+        CachedWatchlist cached = lookup(username);
+        return cached.oversized ? null : cached.tvShows;
+    }
+
+    /**
+     * Write-through for an added or updated movie; a no-op if the user is not cached
+     */
+    public void putMovie(MovieWatchlist movie) {
+        byUsername.computeIfPresent(movie.getUsername(), (username, cached) -> cached.pending ? null
+                : cached.oversized ? cached : cached.withMovies(replace(cached.movies, movie, MovieWatchlist::getMovieId, MovieWatchlist::getUpdatedAt, MOVIE_ORDER)));
+    }
+
+    public void removeMovie(String username, String movieId) {
+        byUsername.computeIfPresent(username, (key, cached) -> cached.pending ? null
+                : cached.oversized ? cached : cached.withMovies(without(cached.movies, movieId, MovieWatchlist::getMovieId)));
+    }
+
+    /**
+     * Write-through for an added or updated TV show; a no-op if the user is not cached
+     */
+    public void putTvShow(TvShowWatchlist tvShow) {
+        byUsername.computeIfPresent(tvShow.getUsername(), (username, cached) -> cached.pending ? null
+                : cached.oversized ? cached : cached.withTvShows(replace(cached.tvShows, tvShow, TvShowWatchlist::getTvShowId, TvShowWatchlist::getUpdatedAt, TV_SHOW_ORDER)));
+    }
+
+    public void removeTvShow(String username, String tvShowId) {
+        byUsername.computeIfPresent(username, (key, cached) -> cached.pending ? null
+                : cached.oversized ? cached : cached.withTvShows(without(cached.tvShows, tvShowId, TvShowWatchlist::getTvShowId)));
+    }
+
+    /**
+     * Drop a user's entry, for changes too broad to write through. Inside a transaction the
+     * change is only visible once it commits, so the user is evicted again after commit.
+     */
+    public void evict(String username) {
+        evictLocal(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(username);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        byUsername.clear();
+    }
+
+    private void evictLocal(String username) {
+        byUsername.remove(username);
+    }
+
+    private CachedWatchlist lookup(String username) {
+        CachedWatchlist cached = byUsername.get(username);
+        if (cached != null && !cached.pending && System.currentTimeMillis() < cached.expiresAt) {
+            return cached;
+        }
+
+        if (byUsername.size() >= maxUsers) {
+            trim();
+        }
+        CachedWatchlist marker = CachedWatchlist.pending();
+        byUsername.put(username, marker);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        // One row past the limit tells whether the user fits
+        List<MovieWatchlist> movies = movieWatchlistRepository.findByUsername(username, Limit.of(maxItems + 1));
+        List<TvShowWatchlist> tvShows = movies.size() > maxItems ? List.of()
+                : tvShowWatchlistRepository.findByUsername(username, Limit.of(maxItems + 1 - movies.size()));
+        if (movies.size() + tvShows.size() > maxItems) {
+            cached = new CachedWatchlist(List.of(), List.of(), true, expiresAt);
+        } else {
+            cached = new CachedWatchlist(sorted(movies, MOVIE_ORDER), sorted(tvShows, TV_SHOW_ORDER), false, expiresAt);
+        }
+        // Fails, leaving the cache as it is, if a change, eviction or another load got there first
+        byUsername.replace(username, marker, cached);
+        return cached;
+    }
+
+    private void trim() {
+        long now = System.currentTimeMillis();
+        byUsername.values().removeIf(cached -> !cached.pending && cached.expiresAt <= now);
+        int target = maxUsers - maxUsers / 10;
+        Iterator<String> iterator = byUsername.keySet().iterator();
+        while (byUsername.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static <T> List<T> sorted(List<T> entries, Comparator<T> order) {
+        List<T> copy = new ArrayList<>(entries);
+        copy.sort(order);
+        return List.copyOf(copy);
+    }
+
+    /**
+     * Copy of entries with the one for the same item replaced, unless the cached one is newer,
+     * which happens when two writes to the same item finish out of order
+     */
+    private static <T> List<T> replace(List<T> entries, T entry, Function<T, String> itemId,
+                                       Function<T, Long> updatedAt, Comparator<T> order) {
+        List<T> copy = new ArrayList<>(entries.size() + 1);
+        for (T existing : entries) {
+            if (Objects.equals(itemId.apply(existing), itemId.apply(entry))) {
+                if (orZero(updatedAt.apply(existing)) > orZero(updatedAt.apply(entry))) {
+                    return entries;
+                }
+            } else {
+                copy.add(existing);
+            }
+        }
+        copy.add(entry);
+        copy.sort(order);
+        return List.copyOf(copy);
+    }
+
+    private static <T> List<T> without(List<T> entries, String removed, Function<T, String> itemId) {
+        List<T> copy = new ArrayList<>(entries.size());
+        for (T existing : entries) {
+            if (!Objects.equals(itemId.apply(existing), removed)) {
+                copy.add(existing);
+            }
+        }
+        return List.copyOf(copy);
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Immutable snapshot of one user's watchlist; writes swap in a new one
+     */
+    private static final class CachedWatchlist {
+        private final List<MovieWatchlist> movies;
+        private final List<TvShowWatchlist> tvShows;
+        private final boolean oversized;
+        // Placeholder for a load in progress, identified by reference
+        private final boolean pending;
+        private final long expiresAt;
+
+        private CachedWatchlist(List<MovieWatchlist> movies, List<TvShowWatchlist> tvShows,
+                                boolean oversized, long expiresAt) {
+            this(movies, tvShows, oversized, false, expiresAt);
+        }
+
+        private CachedWatchlist(List<MovieWatchlist> movies, List<TvShowWatchlist> tvShows,
+                                boolean oversized, boolean pending, long expiresAt) {
+            this.movies = movies;
+            this.tvShows = tvShows;
+            this.oversized = oversized;
+            this.pending = pending;
+            this.expiresAt = expiresAt;
+        }
+
+        private static CachedWatchlist pending() {
+            return new CachedWatchlist(List.of(), List.of(), false, true, 0);
+        }
+
+        private CachedWatchlist withMovies(List<MovieWatchlist> movies) {
+            return new CachedWatchlist(movies, tvShows, oversized, expiresAt);
+        }
+
+        private CachedWatchlist withTvShows(List<TvShowWatchlist> tvShows) {
+            return new CachedWatchlist(movies, tvShows, oversized, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.watchlist_service.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tells other watchlist-service replicas which users' watchlists changed, so they can
+ * evict them from their WatchlistCache.
+ *
+ * Uses PostgreSQL LISTEN/NOTIFY on the database the replicas already share: a payload is
+ * just this instance's id and the username, and a notification sent inside a transaction
+ * is only delivered once it commits. One connection per replica is held for listening.
+ * If it is lost, the whole cache is dropped, since notifications may have been missed.
+ */
+@Component
+public class WatchlistChangeChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchlistChangeChannel.class);
+
+    private static final String CHANNEL = "watchlist_changed";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final WatchlistCache watchlistCache;
+
+    // Tells this replica's own notifications apart; its cache was already written through
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${watchlist.cache.listen-timeout:5000}")
+    private int listenTimeoutMillis;
+
+    @Value("${watchlist.cache.reconnect-delay:5000}")
+    private long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public WatchlistChangeChannel(JdbcTemplate jdbcTemplate, DataSource dataSource, WatchlistCache watchlistCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.watchlistCache = watchlistCache;
+    }
+
+    /**
+     * Notify the other replicas that this user's watchlist changed
+     */
+    public void publish(String username) {
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, instanceId + ":" + username);
+        } catch (Exception e) {
+            // The write itself succeeded; other replicas catch up when their entry expires
+            logger.warn("Failed to notify watchlist change for {}", username, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "watchlist-change-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                // Anything may have changed while not listening
+                watchlistCache.evictAll();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Lost watchlist change notifications, reconnecting", e);
+                watchlistCache.evictAll();
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        watchlistCache.evict(payload.substring(separator + 1));
+    }
+}
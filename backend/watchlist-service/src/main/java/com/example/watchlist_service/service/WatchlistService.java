@@ -1,97 +1,225 @@
 package com.example.watchlist_service.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.watchlist_service.dto.WatchlistPage;
 import com.example.watchlist_service.model.MovieWatchlist;
 import com.example.watchlist_service.model.TvShowWatchlist;
 import com.example.watchlist_service.model.WatchStatus;
 import com.example.watchlist_service.repository.MovieWatchlistRepository;
 import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+import com.example.watchlist_service.repository.WatchlistSpecifications;
 
 @Service
 public class WatchlistService {
 
     private final MovieWatchlistRepository movieWatchlistRepository;
     private final TvShowWatchlistRepository tvShowWatchlistRepository;
+    private final WatchlistCache watchlistCache;
+    private final WatchlistChangeChannel watchlistChangeChannel;
+
+    @Value("${watchlist.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${watchlist.page.max-size:500}")
+    private int maxPageSize;
 
     public WatchlistService(MovieWatchlistRepository movieWatchlistRepository, 
-                          TvShowWatchlistRepository tvShowWatchlistRepository) {
+                          TvShowWatchlistRepository tvShowWatchlistRepository,
+                          WatchlistCache watchlistCache,
+                          WatchlistChangeChannel watchlistChangeChannel) {
         this.movieWatchlistRepository = movieWatchlistRepository;
         this.tvShowWatchlistRepository = tvShowWatchlistRepository;
+        this.watchlistCache = watchlistCache;
+        this.watchlistChangeChannel = watchlistChangeChannel;
     }
 
     // Movie watchlist methods
-    public List<MovieWatchlist> getMovieWatchlistForUser(String username) {
-        return movieWatchlistRepository.findByUsername(username);
+    /**
+     * One page of a user's movies, most recently updated first unless ascending
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public WatchlistPage<MovieWatchlist> getMovieWatchlistPage(String username, WatchStatus status,
+                                                               String cursor, Integer limit, boolean ascending) {
+        long[] after = decodeCursor(cursor);
+        int size = pageSize(limit);
+        List<MovieWatchlist> cached = watchlistCache.getMovies(username);
+        // One extra row tells whether there is a next page, without a count query
+        List<MovieWatchlist> rows = cached != null
+                ? pageRows(cached, MovieWatchlist::getUpdatedAt, MovieWatchlist::getId, MovieWatchlist::getStatus,
+                        status, after, size + 1, ascending)
+                : movieWatchlistRepository.findBy(
+                        WatchlistSpecifications.page(username, status, after != null ? after[0] : null,
+                                after != null ? after[1] : null, ascending),
+                        query -> query.sortBy(WatchlistSpecifications.sort(ascending)).limit(size + 1).all());
+        return toPage(rows, size, MovieWatchlist::getUpdatedAt, MovieWatchlist::getId);
     }
 
     public MovieWatchlist addMovieToWatchlist(MovieWatchlist movieWatchlist) {
-        // Set timestamp
-        long currentTime = System.currentTimeMillis();
-        movieWatchlist.setCreatedAt(currentTime);
-        movieWatchlist.setUpdatedAt(currentTime);
-        return movieWatchlistRepository.save(movieWatchlist);
+        // Idempotent: adding a movie already on the list returns the existing entry
+        MovieWatchlist added = movieWatchlistRepository.upsert(movieWatchlist.getUsername(), movieWatchlist.getMovieId(),
+                name(movieWatchlist.getStatus()), System.currentTimeMillis());
+        watchlistCache.putMovie(added);
+        watchlistChangeChannel.publish(added.getUsername());
+        return added;
     }
 
     public MovieWatchlist updateMovieWatchStatus(String username, String movieId, WatchStatus status) {
-        Optional<MovieWatchlist> existingEntry = movieWatchlistRepository.findByUsernameAndMovieId(username, movieId);
+        Optional<MovieWatchlist> updated = movieWatchlistRepository.updateStatus(username, movieId, name(status),
+                System.currentTimeMillis());
         
-        if (existingEntry.isPresent()) {
-            MovieWatchlist movieWatchlist = existingEntry.get();
-            movieWatchlist.setStatus(status);
-            movieWatchlist.setUpdatedAt(System.currentTimeMillis());
-            return movieWatchlistRepository.save(movieWatchlist);
+        if (updated.isPresent()) {
+            watchlistCache.putMovie(updated.get());
+            watchlistChangeChannel.publish(username);
+            return updated.get();
         }
         
         return null;
     }
 
     public void removeMovieFromWatchlist(String username, String movieId) {
-        Optional<MovieWatchlist> existingEntry = movieWatchlistRepository.findByUsernameAndMovieId(username, movieId);
-        existingEntry.ifPresent(movieWatchlistRepository::delete);
+        if (movieWatchlistRepository.deleteByUsernameAndMovieId(username, movieId) > 0) {
+            watchlistCache.removeMovie(username, movieId);
+            watchlistChangeChannel.publish(username);
+        }
     }
 
     // TV Show watchlist methods
-    public List<TvShowWatchlist> getTvShowWatchlistForUser(String username) {
-        return tvShowWatchlistRepository.findByUsername(username);
+    /**
+     * One page of a user's TV shows, most recently updated first unless ascending
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public WatchlistPage<TvShowWatchlist> getTvShowWatchlistPage(String username, WatchStatus status,
+                                                                 String cursor, Integer limit, boolean ascending) {
+        long[] after = decodeCursor(cursor);
+        int size = pageSize(limit);
+        List<TvShowWatchlist> cached = watchlistCache.getTvShows(username);
+        List<TvShowWatchlist> rows = cached != null
+                ? pageRows(cached, TvShowWatchlist::getUpdatedAt, TvShowWatchlist::getId, TvShowWatchlist::getStatus,
+                        status, after, size + 1, ascending)
+                : tvShowWatchlistRepository.findBy(
+                        WatchlistSpecifications.page(username, status, after != null ? after[0] : null,
+                                after != null ? after[1] : null, ascending),
+                        query -> query.sortBy(WatchlistSpecifications.sort(ascending)).limit(size + 1).all());
+        return toPage(rows, size, TvShowWatchlist::getUpdatedAt, TvShowWatchlist::getId);
     }
 
     public TvShowWatchlist addTvShowToWatchlist(TvShowWatchlist tvShowWatchlist) {
-        // Set timestamp
-        long currentTime = System.currentTimeMillis();
-        tvShowWatchlist.setCreatedAt(currentTime);
-        tvShowWatchlist.setUpdatedAt(currentTime);
-        return tvShowWatchlistRepository.save(tvShowWatchlist);
+        // Idempotent: adding a show already on the list returns the existing entry
+        TvShowWatchlist added = tvShowWatchlistRepository.upsert(tvShowWatchlist.getUsername(), tvShowWatchlist.getTvShowId(),
+                tvShowWatchlist.getCurrentSeason(), tvShowWatchlist.getCurrentEpisode(),
+                name(tvShowWatchlist.getStatus()), System.currentTimeMillis());
+        watchlistCache.putTvShow(added);
+        watchlistChangeChannel.publish(added.getUsername());
+        return added;
     }
 
     public TvShowWatchlist updateTvShowWatchStatus(String username, String tvShowId, 
                                               WatchStatus status, Integer currentSeason, Integer currentEpisode) {
-        Optional<TvShowWatchlist> existingEntry = tvShowWatchlistRepository.findByUsernameAndTvShowId(username, tvShowId);
+        // Season and episode are left as they are when not given
+        Optional<TvShowWatchlist> updated = tvShowWatchlistRepository.updateStatus(username, tvShowId, name(status),
+                currentSeason, currentEpisode, System.currentTimeMillis());
         
-        if (existingEntry.isPresent()) {
-            TvShowWatchlist tvShowWatchlist = existingEntry.get();
-            tvShowWatchlist.setStatus(status);
-            
-            if (currentSeason != null) {
-                tvShowWatchlist.setCurrentSeason(currentSeason);
-            }
-            
-            if (currentEpisode != null) {
-                tvShowWatchlist.setCurrentEpisode(currentEpisode);
-            }
-            
-            tvShowWatchlist.setUpdatedAt(System.currentTimeMillis());
-            return tvShowWatchlistRepository.save(tvShowWatchlist);
+        if (updated.isPresent()) {
+            watchlistCache.putTvShow(updated.get());
+            watchlistChangeChannel.publish(username);
+            return updated.get();
         }
         
         return null;
     }
 
     public void removeTvShowFromWatchlist(String username, String tvShowId) {
-        Optional<TvShowWatchlist> existingEntry = tvShowWatchlistRepository.findByUsernameAndTvShowId(username, tvShowId);
-        existingEntry.ifPresent(tvShowWatchlistRepository::delete);
+        if (tvShowWatchlistRepository.deleteByUsernameAndTvShowId(username, tvShowId) > 0) {
+            watchlistCache.removeTvShow(username, tvShowId);
+            watchlistChangeChannel.publish(username);
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Keyset page over a cached watchlist, which is sorted oldest first; same rows and order
+     * as the database query would return
+     */
+    static <T> List<T> pageRows(List<T> entries, Function<T, Long> updatedAt, Function<T, Long> id,
+                                Function<T, WatchStatus> statusOf, WatchStatus status, long[] after,
+                                int limit, boolean ascending) {
+        List<T> rows = new ArrayList<>(Math.min(limit, entries.size()));
+        int count = entries.size();
+        for (int i = 0; i < count && rows.size() < limit; i++) {
+            T entry = entries.get(ascending ? i : count - 1 - i);
+            if (status != null && statusOf.apply(entry) != status) {
+                continue;
+            }
+            if (after != null) {
+                int position = compareKey(updatedAt.apply(entry), id.apply(entry), after);
+                if (ascending ? position <= 0 : position >= 0) {
+                    continue;
+                }
+            }
+            rows.add(entry);
+        }
+        return rows;
+    }
+
+    private static int compareKey(Long updatedAt, Long id, long[] key) {
+        int byUpdatedAt = Long.compare(updatedAt != null ? updatedAt : 0L, key[0]);
+        return byUpdatedAt != 0 ? byUpdatedAt : Long.compare(id != null ? id : 0L, key[1]);
+    }
+
+    /**
+     * @param rows up to size + 1 rows; the extra one only says there is a next page
+     */
+    private static <T> WatchlistPage<T> toPage(List<T> rows, int size, Function<T, Long> updatedAt, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new WatchlistPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, size);
+        T last = page.get(size - 1);
+        return new WatchlistPage<>(page, encodeCursor(updatedAt.apply(last), id.apply(last)));
+    }
+
+    /**
+     * Opaque to clients: base64url of "updatedAt:id" of the last entry returned
+     */
+    private static String encodeCursor(long updatedAt, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((updatedAt + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new long[] {
+                Long.parseLong(decoded.substring(0, separator)),
+                Long.parseLong(decoded.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String name(WatchStatus status) {
+        return status != null ? status.name() : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.example.watchlist_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+
+class WatchlistServicePageRowsTest {
+
+    // Oldest first, as WatchlistCache holds them; ids 2, 3 and 4 share an updatedAt
+    private final List<MovieWatchlist> entries = List.of(
+            movie(1, 100, WatchStatus.PLAN_TO_WATCH),
+            movie(2, 200, WatchStatus.CURRENTLY_WATCHING),
+            movie(3, 200, WatchStatus.PLAN_TO_WATCH),
+            movie(4, 200, WatchStatus.CURRENTLY_WATCHING),
+            movie(5, 300, WatchStatus.PLAN_TO_WATCH));
+
+    @Test
+    void ascendingFirstPageStartsWithOldest() {
+        assertEquals(List.of(1L, 2L, 3L), ids(page(null, null, 3, true)));
+    }
+
+    @Test
+    void descendingFirstPageStartsWithNewest() {
+        assertEquals(List.of(5L, 4L, 3L), ids(page(null, null, 3, false)));
+    }
+
+    @Test
+    void ascendingCursorInsideTieContinuesByIdOnly() {
+        assertEquals(List.of(4L, 5L), ids(page(null, new long[] { 200, 3 }, 10, true)));
+    }
+
+    @Test
+    void descendingCursorInsideTieContinuesByIdOnly() {
+        assertEquals(List.of(2L, 1L), ids(page(null, new long[] { 200, 3 }, 10, false)));
+    }
+
+    @Test
+    void cursorIsExclusive() {
+        assertEquals(List.of(5L), ids(page(null, new long[] { 200, 4 }, 10, true)));
+        assertEquals(List.of(1L), ids(page(null, new long[] { 200, 2 }, 10, false)));
+    }
+
+    @Test
+    void cursorBetweenEntriesNeedNotMatchOne() {
+        assertEquals(List.of(2L, 3L, 4L, 5L), ids(page(null, new long[] { 150, 0 }, 10, true)));
+        assertEquals(List.of(1L), ids(page(null, new long[] { 150, 0 }, 10, false)));
+    }
+
+    @Test
+    void walkingPagesVisitsEveryEntryOnceInEitherDirection() {
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), walk(2, true));
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), walk(2, false));
+    }
+
+    @Test
+    void statusFilterAppliesBeforeLimit() {
+        assertEquals(List.of(2L, 4L), ids(page(WatchStatus.CURRENTLY_WATCHING, null, 2, true)));
+        assertEquals(List.of(4L), ids(page(WatchStatus.CURRENTLY_WATCHING, new long[] { 200, 2 }, 2, true)));
+    }
+
+    @Test
+    void pastTheEndIsEmpty() {
+        assertEquals(List.of(), ids(page(null, new long[] { 300, 5 }, 10, true)));
+        assertEquals(List.of(), ids(page(null, new long[] { 100, 1 }, 10, false)));
+    }
+
+    private List<Long> walk(int size, boolean ascending) {
+        List<Long> seen = new ArrayList<>();
+        long[] after = null;
+        while (true) {
+            List<MovieWatchlist> rows = page(null, after, size, ascending);
+            if (rows.isEmpty()) {
+                return seen;
+            }
+            seen.addAll(ids(rows));
+            MovieWatchlist last = rows.get(rows.size() - 1);
+            after = new long[] { last.getUpdatedAt(), last.getId() };
+        }
+    }
+
+    private List<MovieWatchlist> page(WatchStatus status, long[] after, int limit, boolean ascending) {
+        return WatchlistService.pageRows(entries, MovieWatchlist::getUpdatedAt, MovieWatchlist::getId,
+                MovieWatchlist::getStatus, status, after, limit, ascending);
+    }
+
+    private static List<Long> ids(List<MovieWatchlist> rows) {
+        return rows.stream().map(MovieWatchlist::getId).toList();
+    }
+
+    private static MovieWatchlist movie(long id, long updatedAt, WatchStatus status) {
+        MovieWatchlist movie = new MovieWatchlist();
+        movie.setId(id);
+        movie.setUsername("alice");
+        movie.setMovieId("m" + id);
+        movie.setStatus(status);
+        movie.setCreatedAt(updatedAt);
+        movie.setUpdatedAt(updatedAt);
+        return movie;
+    }
+}
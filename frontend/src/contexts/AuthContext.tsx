@@ -1,6 +1,6 @@
 'use client';
 
-import { createContext, useContext, useState, useEffect, ReactNode } from 'react';
+import { createContext, useContext, useState, useEffect, useRef, ReactNode } from 'react';
 import { useRouter } from 'next/navigation';
 
 type User = {
@@ -30,6 +30,22 @@ type AuthContextType = {
 
 const AuthContext = createContext<AuthContextType | undefined>(undefined);
 
+// Access tokens are short-lived; renew this long before they expire
+const REFRESH_MARGIN_MS = 60 * 1000;
+
+type TokenResponse = {
+  token: string;
+  refreshToken?: string;
+  expiresIn?: number;
+};
+
+const clearStoredSession = () => {
+  localStorage.removeItem('auth_token');
+  localStorage.removeItem('refresh_token');
+  localStorage.removeItem('token_expiry');
+  localStorage.removeItem('is_guest');
+};
+
 export function useAuth() {
   const context = useContext(AuthContext);
   if (context === undefined) {
@@ -46,6 +62,81 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   const [tokenExpiry, setTokenExpiry] = useState<number | null>(null);
   const [isGuest, setIsGuest] = useState<boolean>(false);
   const router = useRouter();
+  // Shared by concurrent callers so a refresh token is only ever presented once
+  const refreshInFlight = useRef<Promise<string | null> | null>(null);
+
+  // Store the tokens from a login, registration, upgrade or refresh response
+  const storeSession = (data: TokenResponse, guest: boolean) => {
+    const expiryTime = Date.now() + (data.expiresIn ?? 24 * 60 * 60 * 1000);
+    localStorage.setItem('auth_token', data.token);
+    localStorage.setItem('token_expiry', expiryTime.toString());
+    localStorage.setItem('is_guest', guest ? 'true' : 'false');
+    if (data.refreshToken) {
+      localStorage.setItem('refresh_token', data.refreshToken);
+    } else {
+      localStorage.removeItem('refresh_token');
+    }
+    setToken(data.token);
+    setTokenExpiry(expiryTime);
+    setIsGuest(guest);
+  };
+
+  const clearSession = () => {
+    clearStoredSession();
+    setToken(null);
+    setUser(null);
+    setTokenExpiry(null);
+    setIsGuest(false);
+  };
+
+  // Exchange the stored refresh token for a new token pair; resolves to the new access
+  // token, or null if the session could not be renewed
+  const refreshSession = (): Promise<string | null> => {
+    if (refreshInFlight.current) {
+      return refreshInFlight.current;
+    }
+    const refreshToken = localStorage.getItem('refresh_token');
+    if (!refreshToken) {
+      return Promise.resolve(null);
+    }
+    refreshInFlight.current = (async () => {
+      try {
+        const response = await fetch(`/api/auth/refresh`, {
+          method: 'POST',
+          headers: {
+            'Content-Type': 'application/json'
+          },
+          body: JSON.stringify({ refreshToken })
+        });
+        if (!response.ok) {
+          return null;
+        }
+        const data: TokenResponse = await response.json();
+        storeSession(data, false);
+        return data.token;
+      } catch (error) {
+        console.error("Error refreshing session:", error);
+        return null;
+      } finally {
+        refreshInFlight.current = null;
+      }
+    })();
+    return refreshInFlight.current;
+  };
+
+  // Renew the access token shortly before it expires
+  useEffect(() => {
+    if (!tokenExpiry || isGuest || !localStorage.getItem('refresh_token')) {
+      return;
+    }
+    const timer = setTimeout(async () => {
+      const renewed = await refreshSession();
+      if (!renewed) {
+        clearSession();
+      }
+    }, Math.max(tokenExpiry - Date.now() - REFRESH_MARGIN_MS, 0));
+    return () => clearTimeout(timer);
+  }, [tokenExpiry, isGuest]);
 
   // Check if user is already logged in on initial load
   useEffect(() => {
@@ -57,15 +148,15 @@ export function AuthProvider({ children }: { children: ReactNode }) {
       const expiryTime = parseInt(storedExpiry, 10);
       // Check if token is expired
       if (Date.now() > expiryTime) {
-        // Token expired, log out
-        localStorage.removeItem('auth_token');
-        localStorage.removeItem('token_expiry');
-        localStorage.removeItem('is_guest');
-        setToken(null);
-        setUser(null);
-        setTokenExpiry(null);
-        setIsGuest(false);
-        setIsLoading(false);
+        // Access token expired; a refresh token can still renew the session
+        refreshSession().then(renewed => {
+          if (renewed) {
+            fetchCurrentUser(renewed);
+          } else {
+            clearSession();
+            setIsLoading(false);
+          }
+        });
       } else {
         // Token is valid
         setToken(storedToken);
@@ -96,7 +187,7 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   };
 
   // Fetch current user details using an existing token
-  const fetchCurrentUser = async (authToken: string) => {
+  const fetchCurrentUser = async (authToken: string, retried: boolean = false) => {
     try {
       const response = await fetch(`/api/auth/user`, {
         headers: {
@@ -109,14 +200,16 @@ export function AuthProvider({ children }: { children: ReactNode }) {
         setUser(data.user);
         setIsLoading(false);
       } else {
+        // The access token may have expired or been revoked; try renewing it once
+        if (response.status === 401 && !retried) {
+          const renewed = await refreshSession();
+          if (renewed) {
+            await fetchCurrentUser(renewed, true);
+            return;
+          }
+        }
         // Not authorized or other error
-        localStorage.removeItem('auth_token');
-        localStorage.removeItem('token_expiry');
-        localStorage.removeItem('is_guest');
-        setToken(null);
-        setUser(null);
-        setTokenExpiry(null);
-        setIsGuest(false);
+        clearSession();
         setIsLoading(false);
       }
     } catch (error) {
@@ -144,15 +237,8 @@ export function AuthProvider({ children }: { children: ReactNode }) {
         throw new Error(data.message || 'Login failed');
       }
 
-      // Store auth token and expiry
-      const expiryTime = Date.now() + (24 * 60 * 60 * 1000); // 24 hours
-      localStorage.setItem('auth_token', data.token);
-      localStorage.setItem('token_expiry', expiryTime.toString());
-      localStorage.setItem('is_guest', 'false');
-      
-      setToken(data.token);
-      setTokenExpiry(expiryTime);
-      setIsGuest(false);
+      // Store auth token, refresh token and expiry
+      storeSession(data, false);
       
       // Set user data
       setUser({
@@ -223,15 +309,8 @@ export function AuthProvider({ children }: { children: ReactNode }) {
         throw new Error(data.message || 'Could not create guest session');
       }
 
-      // Store guest token
-      const expiryTime = Date.now() + (24 * 60 * 60 * 1000); // 24 hours
-      localStorage.setItem('auth_token', data.token);
-      localStorage.setItem('token_expiry', expiryTime.toString());
-      localStorage.setItem('is_guest', 'true');
-      
-      setToken(data.token);
-      setTokenExpiry(expiryTime);
-      setIsGuest(true);
+      // Store guest token; guests get no refresh token
+      storeSession(data, true);
       
       // Set guest user data
       setUser({
@@ -277,8 +356,8 @@ export function AuthProvider({ children }: { children: ReactNode }) {
         throw new Error(data.message || 'Account creation failed');
       }
 
-      // Update session with new user details
-      localStorage.setItem('is_guest', 'false');
+      // Update session with the new account's tokens and details
+      storeSession(data, false);
       
       setUser({
         username,
@@ -286,8 +365,6 @@ export function AuthProvider({ children }: { children: ReactNode }) {
         role: 'USER'
       });
       
-      setIsGuest(false);
-      
       // Redirect to home page instead of dashboard
       router.push('/home');
     } catch (error) {
@@ -487,13 +564,19 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   };
 
   const logout = () => {
-    localStorage.removeItem('auth_token');
-    localStorage.removeItem('token_expiry');
-    localStorage.removeItem('is_guest');
-    setUser(null);
-    setToken(null);
-    setTokenExpiry(null);
-    setIsGuest(false);
+    const refreshToken = localStorage.getItem('refresh_token');
+    if (token) {
+      // Revoke the access token and the refresh token's family server-side
+      fetch(`/api/auth/logout`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+          'Authorization': `Bearer ${token}`
+        },
+        body: JSON.stringify(refreshToken ? { refreshToken } : {})
+      }).catch(error => console.error("Error logging out:", error));
+    }
+    clearSession();
     setError(null);
     router.push('/login');
   };
@@ -1,18 +1,30 @@
 // Watchlist Service API functions
 import { WatchStatus } from '../types';
 
-// Movie Watchlist API functions
-export async function getMovieWatchlist(username: string): Promise<any[]> {
-  try {
+// The watchlist service returns one page at a time; follow X-Next-Cursor until the last page
+async function fetchAllPages(url: string, errorMessage: string): Promise<any[]> {
+  const items: any[] = [];
+  let cursor: string | null = null;
+  do {
+    const pageUrl: string = cursor ? `${url}?cursor=${encodeURIComponent(cursor)}` : url;
     // Use credentials: 'include' to make sure cookies are sent with the request
-    const response = await fetch(`/api/watchlist/movies/${username}`, {
+    const response = await fetch(pageUrl, {
       credentials: 'include',
     });
-    
+
     if (!response.ok) {
-      throw new Error('Failed to fetch movie watchlist');
+      throw new Error(errorMessage);
     }
-    return await response.json();
+    items.push(...(await response.json()));
+    cursor = response.headers.get('X-Next-Cursor');
+  } while (cursor);
+  return items;
+}
+
+// Movie Watchlist API functions
+export async function getMovieWatchlist(username: string): Promise<any[]> {
+  try {
+    return await fetchAllPages(`/api/watchlist/movies/${username}`, 'Failed to fetch movie watchlist');
   } catch (error) {
     console.error('Error fetching movie watchlist:', error);
     return [];
@@ -86,13 +98,7 @@ export async function removeMovieFromWatchlist(username: string, movieId: string
 // TV Show Watchlist API functions
 export async function getTvShowWatchlist(username: string): Promise<any[]> {
   try {
-    const response = await fetch(`/api/watchlist/tvshows/${username}`, {
-      credentials: 'include',
-    });
-    if (!response.ok) {
-      throw new Error('Failed to fetch TV show watchlist');
-    }
-    return await response.json();
+    return await fetchAllPages(`/api/watchlist/tvshows/${username}`, 'Failed to fetch TV show watchlist');
   } catch (error) {
     console.error('Error fetching TV show watchlist:', error);
     return [];
@@ -180,3 +186,44 @@ export async function removeTvShowFromWatchlist(username: string, tvShowId: stri
     throw error;
   }
 }
+
+// Bulk actions: any mix of adds, updates and removes, applied in one request and one transaction
+export interface WatchlistBatchOperation {
+  action: 'ADD' | 'UPDATE' | 'REMOVE';
+  type: 'MOVIE' | 'TV_SHOW';
+  itemId: string;
+  status?: WatchStatus;
+  currentSeason?: number;
+  currentEpisode?: number;
+}
+
+export interface WatchlistBatchResult {
+  index: number;
+  outcome: 'APPLIED' | 'UNCHANGED' | 'NOT_FOUND' | 'INVALID';
+  error: string | null;
+}
+
+export async function applyWatchlistBatch(
+  username: string,
+  operations: WatchlistBatchOperation[]
+): Promise<WatchlistBatchResult[]> {
+  try {
+    const response = await fetch('/api/watchlist/batch', {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+      credentials: 'include',
+      body: JSON.stringify({ username, operations }),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to apply watchlist changes');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Error applying watchlist changes:', error);
+    throw error;
+  }
+}